@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the JVM jar, the AOT + CDS jar and the native image.
+#
+#   mvn -Pcds package -DskipTests          # target/cds/*.jar + target/cds/application.jsa
+#   mvn -Pnative native:compile -DskipTests # target/password-hierarchy-back (needs GraalVM)
+#   scripts/startup-benchmark.sh [runs] [extra application args...]
+#
+# Each variant is started against the database configured in application.properties (override with extra args,
+# e.g. --spring.datasource.url=...). Startup is the time Spring reports in its "Started ... in" log line; RSS is
+# read from /proc once the application is up.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-5}"
+shift || true
+APP_ARGS=("--server.port=0" "$@")
+
+JAR="$(ls target/password-hierarchy-back-*.jar 2>/dev/null | grep -v plain | head -n 1 || true)"
+CDS_JAR="$(ls target/cds/password-hierarchy-back-*.jar 2>/dev/null | head -n 1 || true)"
+NATIVE="target/password-hierarchy-back"
+
+measure() {
+  local name="$1"
+  shift
+  local total_ms=0 total_rss=0
+  for _ in $(seq "$RUNS"); do
+    local log
+    log="$(mktemp)"
+    "$@" "${APP_ARGS[@]}" >"$log" 2>&1 &
+    local pid=$!
+    local started=""
+    for _ in $(seq 600); do
+      started="$(grep -oE 'Started [A-Za-z]+ in [0-9.]+ seconds' "$log" | grep -oE '[0-9.]+' | head -n 1 || true)"
+      [[ -n "$started" ]] && break
+      kill -0 "$pid" 2>/dev/null || break
+      sleep 0.1
+    done
+    if [[ -z "$started" ]]; then
+      echo "$name: did not start, see $log" >&2
+      kill "$pid" 2>/dev/null || true
+      return 1
+    fi
+    local rss
+    rss="$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")"
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -f "$log"
+    total_ms=$(awk -v t="$total_ms" -v s="$started" 'BEGIN {print t + s * 1000}')
+    total_rss=$((total_rss + rss))
+  done
+  awk -v n="$name" -v t="$total_ms" -v r="$total_rss" -v runs="$RUNS" \
+    'BEGIN {printf "%-12s startup %8.0f ms   rss %8.1f MB\n", n, t / runs, r / runs / 1024}'
+}
+
+[[ -n "$JAR" ]] && measure "jvm" java -jar "$JAR"
+[[ -n "$CDS_JAR" ]] && measure "jvm+aot+cds" java -XX:SharedArchiveFile=target/cds/application.jsa \
+  -Dspring.aot.enabled=true -jar "$CDS_JAR"
+[[ -x "$NATIVE" ]] && measure "native" "$NATIVE"
+exit 0
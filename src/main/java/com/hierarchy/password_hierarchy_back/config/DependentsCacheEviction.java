@@ -0,0 +1,41 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached {@code dependents} collections a change touched.
+ * <p>
+ * {@code dependents} is mapped from the {@code dependent_id} column of the other rows, so Hibernate does not see that
+ * writing that column changes the manager's collection. Entities and cached queries are invalidated by Hibernate.
+ */
+@Component
+public class DependentsCacheEviction {
+
+    private final Cache cache;
+
+    @Autowired
+    public DependentsCacheEviction(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChange(EmployeeChangeEvent event) {
+        evictManager(event.previous());
+        evictManager(event.current());
+    }
+
+    private void evictManager(EmployeeState state) {
+        if (state != null && !state.isRoot()) {
+            cache.evictCollectionData(HibernateCacheConfig.DEPENDENTS_REGION, state.dependentId());
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded Caffeine regions for the Hibernate second-level cache.
+ * <p>
+ * Hibernate keeps the regions consistent with writes made through this instance; the expiry bounds how long writes
+ * made through other instances can go unseen. The update-timestamps region backs query cache invalidation and must
+ * neither expire nor lose entries, so it only gets a generous size bound (one entry per table).
+ */
+@Configuration(proxyBeanMethods = false)
+public class HibernateCacheConfig {
+
+    public static final String EMPLOYEE_REGION = Employee.class.getName();
+    public static final String DEPENDENTS_REGION = EMPLOYEE_REGION + ".dependents";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${hierarchy.cache.employee.max-entries:10000}") long employeeEntries,
+                                              @Value("${hierarchy.cache.dependents.max-entries:10000}") long dependentsEntries,
+                                              @Value("${hierarchy.cache.queries.max-entries:256}") long queryEntries,
+                                              @Value("${hierarchy.cache.expire-after-write-ms:60000}") long expireAfterWriteMillis) {
+        // A manager of its own, so a second application context in the same JVM does not share the regions.
+        final CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        final CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hierarchy-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(EMPLOYEE_REGION, region(employeeEntries, expireAfterWriteMillis));
+        cacheManager.createCache(DEPENDENTS_REGION, region(dependentsEntries, expireAfterWriteMillis));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryEntries, expireAfterWriteMillis));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(1024, 0));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, long expireAfterWriteMillis) {
+        final CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (expireAfterWriteMillis > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis)));
+        }
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+}
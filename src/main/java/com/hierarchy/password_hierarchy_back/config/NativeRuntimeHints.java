@@ -0,0 +1,43 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.models.dtos.*;
+import com.hierarchy.password_hierarchy_back.readmodel.StrengthCount;
+import com.hierarchy.password_hierarchy_back.timing.QueryCountListener;
+import com.hierarchy.password_hierarchy_back.timing.SlowRequest;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for the AOT-processed and native builds that Spring cannot infer on its own.
+ * <p>
+ * The DTOs are bound by Jackson through their Lombok accessors, {@link EmployeeState} and {@link StrengthCount} are
+ * instantiated reflectively by the {@code select new} queries in {@code EmployeeRepo}, Hibernate creates the
+ * {@link QueryCountListener} from its class name, and Flyway only registers its default {@code db/migration}
+ * location, not {@code db/migrations}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeRuntimeHints.Registrar.class)
+@RegisterReflectionForBinding({EmployeeRequestDTO.class, EmployeeResponseDTO.class, DependentDTO.class,
+        PasswordRequestDTO.class, PasswordResponseDTO.class, ErrorResponseDTO.class, StrengthAggregateDTO.class,
+        StrengthHistogramDTO.class, HierarchyIntegrityDTO.class, ReparentRequestDTO.class, BulkChangeResponseDTO.class,
+        EmployeeChangesDTO.class, EmployeeChangeDTO.class, PasswordGenerateRequestDTO.class, GeneratedPasswordDTO.class,
+        SlowRequest.class})
+public class NativeRuntimeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(EmployeeState.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(StrengthCount.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(QueryCountListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("db/migrations/*.sql");
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the single datasource with a primary and a read-only replica pool once
+ * {@code hierarchy.datasource.replica.url} is set; without it the auto-configured datasource is used unchanged.
+ * <p>
+ * The primary keeps the {@code spring.datasource.*} settings. Service methods marked
+ * {@code @Transactional(readOnly = true)} read from the replica, see {@link ReadWriteRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty("hierarchy.datasource.replica.url")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties,
+                                 @Value("${hierarchy.datasource.replica.url}") String replicaUrl,
+                                 @Value("${hierarchy.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+                                 @Value("${hierarchy.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword,
+                                 @Value("${hierarchy.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+                                 @Value("${hierarchy.datasource.read-your-writes-ms:2000}") long readYourWritesMillis) {
+        final HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+
+        final HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryProperties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(replicaPoolSize);
+        replica.setReadOnly(true);
+
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, readYourWritesMillis));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The key is looked up when a connection is first used, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for its
+ * connection before the read-only flag is bound to the thread. Every committed read-write transaction opens a
+ * read-your-writes window during which read-only transactions also go to the primary, so a client that just wrote
+ * does not read past a lagging replica. The window is instance-wide, as requests carry no notion of who wrote.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final long readYourWritesNanos;
+    private volatile long lastWriteNanos;
+    private volatile boolean written;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long readYourWritesMillis) {
+        this.readYourWritesNanos = readYourWritesMillis * 1_000_000;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return withinReadYourWritesWindow() ? Route.PRIMARY : Route.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markWrite();
+                }
+            });
+        }
+        return Route.PRIMARY;
+    }
+
+    void markWrite() {
+        lastWriteNanos = System.nanoTime();
+        written = true;
+    }
+
+    private boolean withinReadYourWritesWindow() {
+        return written && System.nanoTime() - lastWriteNanos < readYourWritesNanos;
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hierarchy.password_hierarchy_back.timing.*;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+/**
+ * Wires the per-request phase timing of the {@code timing} package: the filter that emits {@code Server-Timing},
+ * repository and Hibernate hooks for database time and query count, and the streaming JSON converter for
+ * serialization time. Hash, scoring and mapping time are recorded where that work happens.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "hierarchy.timing.enabled", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public SlowRequestLog slowRequestLog(@Value("${hierarchy.timing.slow-log-size:100}") int slowLogSize) {
+        return new SlowRequestLog(slowLogSize);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(
+            SlowRequestLog slowRequestLog, @Value("${hierarchy.timing.slow-threshold-ms:500}") long slowThresholdMillis) {
+        final FilterRegistrationBean<ServerTimingFilter> registration =
+                new FilterRegistrationBean<>(new ServerTimingFilter(slowRequestLog, slowThresholdMillis));
+        // Outermost, so the total covers security and the rest of the chain.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TimedJsonHttpMessageConverter timedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, QueryCountListener.class.getName());
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactory) {
+                    repositoryFactory.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryTimingInterceptor())));
+                }
+                return bean;
+            }
+        };
+    }
+
+}
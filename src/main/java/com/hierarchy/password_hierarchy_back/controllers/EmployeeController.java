@@ -2,12 +2,22 @@ package com.hierarchy.password_hierarchy_back.controllers;
 
 import com.hierarchy.password_hierarchy_back.models.dtos.*;
 import com.hierarchy.password_hierarchy_back.services.EmployeeService;
+import com.hierarchy.password_hierarchy_back.services.FlatHierarchyService;
+import com.hierarchy.password_hierarchy_back.services.HierarchySnapshotService;
+import com.hierarchy.password_hierarchy_back.services.HierarchySnapshotService.HierarchySnapshot;
+import com.hierarchy.password_hierarchy_back.services.NameAutocompleteService;
+import com.hierarchy.password_hierarchy_back.services.PasswordGeneratorService;
+import com.hierarchy.password_hierarchy_back.services.StrengthAggregateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @CrossOrigin(origins = "*")
@@ -15,10 +25,23 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final HierarchySnapshotService hierarchySnapshotService;
+    private final StrengthAggregateService strengthAggregateService;
+    private final FlatHierarchyService flatHierarchyService;
+    private final NameAutocompleteService nameAutocompleteService;
+    private final PasswordGeneratorService passwordGeneratorService;
 
     @Autowired
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, HierarchySnapshotService hierarchySnapshotService,
+                              StrengthAggregateService strengthAggregateService, FlatHierarchyService flatHierarchyService,
+                              NameAutocompleteService nameAutocompleteService,
+                              PasswordGeneratorService passwordGeneratorService) {
         this.employeeService = employeeService;
+        this.hierarchySnapshotService = hierarchySnapshotService;
+        this.strengthAggregateService = strengthAggregateService;
+        this.flatHierarchyService = flatHierarchyService;
+        this.nameAutocompleteService = nameAutocompleteService;
+        this.passwordGeneratorService = passwordGeneratorService;
     }
 
     @PostMapping
@@ -33,10 +56,54 @@ public class EmployeeController {
         return new ResponseEntity<>(employee, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/{id}", params = "format=flat")
+    public ResponseEntity<byte[]> getFlatSubtree(@PathVariable Long id) {
+        return flatResponse(flatHierarchyService.getSubtree(id));
+    }
+
+    @GetMapping(value = "/{id}", produces = FlatHierarchyService.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getFlatSubtreeByAccept(@PathVariable Long id) {
+        return getFlatSubtree(id);
+    }
+
+    @GetMapping(value = "/employees", params = "format=flat")
+    public ResponseEntity<byte[]> getFlatEmployees() {
+        return flatResponse(flatHierarchyService.getTree());
+    }
+
+    @GetMapping(value = "/employees", produces = FlatHierarchyService.MEDIA_TYPE)
+    public ResponseEntity<byte[]> getFlatEmployeesByAccept() {
+        return getFlatEmployees();
+    }
+
     @GetMapping("/employees")
-    public ResponseEntity<List<EmployeeResponseDTO>> getEmployees() {
-        final List<EmployeeResponseDTO> employees = employeeService.getAllEmployees();
-        return new ResponseEntity<>(employees, HttpStatus.OK);
+    public ResponseEntity<byte[]> getEmployees(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        final HierarchySnapshot snapshot = hierarchySnapshotService.getSnapshot();
+
+        if (snapshot.matches(ifNoneMatch)) {
+            return snapshotResponse(HttpStatus.NOT_MODIFIED, snapshot).build();
+        }
+
+        final ResponseEntity.BodyBuilder response = snapshotResponse(HttpStatus.OK, snapshot)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (snapshot.hasGzip() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    @GetMapping(value = "/employees", produces = HierarchySnapshotService.SMILE_VALUE)
+    public ResponseEntity<byte[]> getEmployeesAsSmile(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return binaryEmployees(HierarchySnapshotService.SMILE_VALUE, ifNoneMatch);
+    }
+
+    @GetMapping(value = "/employees", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<byte[]> getEmployeesAsCbor(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return binaryEmployees(MediaType.APPLICATION_CBOR_VALUE, ifNoneMatch);
     }
 
     @GetMapping("/name")
@@ -45,27 +112,139 @@ public class EmployeeController {
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
+    @GetMapping("/name/suggestions")
+    public ResponseEntity<List<DependentDTO>> getNameSuggestions(@RequestParam String prefix,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return new ResponseEntity<>(nameAutocompleteService.suggest(prefix, limit), HttpStatus.OK);
+    }
+
     @GetMapping("/dependents/{id}")
     public ResponseEntity<List<DependentDTO>> getDependents(@PathVariable Long id) {
         final List<DependentDTO> employees = employeeService.getDependents(id);
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/managers")
+    public ResponseEntity<List<DependentDTO>> getManagers(@PathVariable Long id) {
+        return new ResponseEntity<>(employeeService.getManagers(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<EmployeeChangesDTO> getChanges(@RequestParam(required = false) Long since) {
+        return new ResponseEntity<>(employeeService.getChangesSince(since), HttpStatus.OK);
+    }
+
+    @GetMapping("/strength/aggregates")
+    public ResponseEntity<List<StrengthAggregateDTO>> getStrengthAggregates() {
+        return new ResponseEntity<>(strengthAggregateService.getManagerAggregates(), HttpStatus.OK);
+    }
+
+    @GetMapping("/strength/histogram")
+    public ResponseEntity<StrengthHistogramDTO> getStrengthHistogram() {
+        return new ResponseEntity<>(strengthAggregateService.getHistogram(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/strength/aggregates")
+    public ResponseEntity<StrengthAggregateDTO> getStrengthAggregates(@PathVariable Long id) {
+        return new ResponseEntity<>(strengthAggregateService.getAggregates(id), HttpStatus.OK);
+    }
+
     @PostMapping("/score")
     public ResponseEntity<PasswordResponseDTO> getScore(@RequestBody PasswordRequestDTO passwordResponse) {
         return new ResponseEntity<>(employeeService.getScore(passwordResponse), HttpStatus.OK);
     }
 
+    @PostMapping("/password/generate")
+    public ResponseEntity<List<GeneratedPasswordDTO>> generatePasswords(@RequestBody PasswordGenerateRequestDTO request) {
+        return new ResponseEntity<>(passwordGeneratorService.generate(request), HttpStatus.OK);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EmployeeResponseDTO> updateEmployee(@PathVariable Long id, @RequestBody EmployeeRequestDTO employeeRequest) {
         employeeService.updateEmployee(id, employeeRequest);
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable Long id, @RequestBody EmployeeRequestDTO employeeRequest) {
+        employeeService.patchEmployee(id, employeeRequest);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PostMapping("/reparent")
+    public ResponseEntity<BulkChangeResponseDTO> reparentEmployees(@RequestBody ReparentRequestDTO reparentRequest) {
+        return new ResponseEntity<>(employeeService.reparentEmployees(reparentRequest), HttpStatus.OK);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteEmployee(@PathVariable Long id) {
         employeeService.deleteEmployee(id);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @DeleteMapping("/{id}/subtree")
+    public ResponseEntity<BulkChangeResponseDTO> deleteSubtree(@PathVariable Long id) {
+        return new ResponseEntity<>(employeeService.deleteSubtree(id), HttpStatus.OK);
+    }
+
+    private ResponseEntity<byte[]> binaryEmployees(String mediaType, String ifNoneMatch) {
+        final HierarchySnapshot snapshot = hierarchySnapshotService.getSnapshot();
+
+        if (snapshot.matches(ifNoneMatch)) {
+            return snapshotResponse(HttpStatus.NOT_MODIFIED, snapshot).build();
+        }
+        return snapshotResponse(HttpStatus.OK, snapshot)
+                .contentType(MediaType.parseMediaType(mediaType))
+                .body(hierarchySnapshotService.getEncoded(snapshot, mediaType));
+    }
+
+    /**
+     * Whether an {@code Accept-Encoding} header allows gzip: {@code gzip} (or {@code x-gzip}) listed with a non-zero
+     * quality, or, when neither is listed, {@code *} with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = Math.max(gzip, quality(parts));
+            } else if (coding.equals("*")) {
+                wildcard = Math.max(wildcard, quality(parts));
+            }
+        }
+        return (gzip >= 0 ? gzip : wildcard) > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static ResponseEntity<byte[]> flatResponse(byte[] json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(FlatHierarchyService.MEDIA_TYPE))
+                .body(json);
+    }
+
+    private static ResponseEntity.BodyBuilder snapshotResponse(HttpStatus status, HierarchySnapshot snapshot) {
+        return ResponseEntity.status(status)
+                .eTag(snapshot.etag())
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
 }
@@ -0,0 +1,34 @@
+package com.hierarchy.password_hierarchy_back.controllers;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.HierarchyIntegrityDTO;
+import com.hierarchy.password_hierarchy_back.services.HierarchyIntegrityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/hierarchy/integrity")
+public class HierarchyIntegrityController {
+
+    private final HierarchyIntegrityService hierarchyIntegrityService;
+
+    @Autowired
+    public HierarchyIntegrityController(HierarchyIntegrityService hierarchyIntegrityService) {
+        this.hierarchyIntegrityService = hierarchyIntegrityService;
+    }
+
+    @GetMapping
+    public ResponseEntity<HierarchyIntegrityDTO> getLastReport() {
+        return hierarchyIntegrityService.getLastReport()
+                .map(report -> new ResponseEntity<>(report, HttpStatus.OK))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    @PostMapping
+    public ResponseEntity<HierarchyIntegrityDTO> validate() {
+        return new ResponseEntity<>(hierarchyIntegrityService.validate(), HttpStatus.OK);
+    }
+
+}
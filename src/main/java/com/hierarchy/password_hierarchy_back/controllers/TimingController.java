@@ -0,0 +1,31 @@
+package com.hierarchy.password_hierarchy_back.controllers;
+
+import com.hierarchy.password_hierarchy_back.timing.SlowRequest;
+import com.hierarchy.password_hierarchy_back.timing.SlowRequestLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@CrossOrigin(origins = "*")
+@RequestMapping("/api/timing")
+@ConditionalOnProperty(value = "hierarchy.timing.enabled", matchIfMissing = true)
+public class TimingController {
+
+    private final SlowRequestLog slowRequestLog;
+
+    @Autowired
+    public TimingController(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @GetMapping("/slow-requests")
+    public ResponseEntity<List<SlowRequest>> getSlowRequests() {
+        return new ResponseEntity<>(slowRequestLog.recent(), HttpStatus.OK);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.hierarchy.password_hierarchy_back.controllers.advice;
 
 import com.hierarchy.password_hierarchy_back.exceptions.EmployeeNotFoundException;
+import com.hierarchy.password_hierarchy_back.exceptions.HierarchyCycleException;
 import com.hierarchy.password_hierarchy_back.models.dtos.ErrorResponseDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,4 +24,10 @@ public class ControllerAdviceHandler {
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(HierarchyCycleException.class)
+    public ResponseEntity<ErrorResponseDTO> handleHierarchyCycleException(HierarchyCycleException ex, WebRequest request) {
+        ErrorResponseDTO errorResponseDTO = new ErrorResponseDTO(HttpStatus.CONFLICT.value(), ex.getMessage());
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.CONFLICT);
+    }
+
 }
@@ -0,0 +1,19 @@
+package com.hierarchy.password_hierarchy_back.events;
+
+/**
+ * Published by {@code EmployeeService} after every employee write.
+ *
+ * @param type     kind of write
+ * @param version  row version the write stamped, from the change sequence shared by every instance; all the changes
+ *                 of one bulk write share it
+ * @param previous state before the write, {@code null} for {@link EmployeeChangeType#CREATED}
+ * @param current  state after the write, {@code null} for {@link EmployeeChangeType#DELETED}
+ */
+public record EmployeeChangeEvent(EmployeeChangeType type, long version, EmployeeState previous,
+                                  EmployeeState current) {
+
+    public long employeeId() {
+        return current != null ? current.id() : previous.id();
+    }
+
+}
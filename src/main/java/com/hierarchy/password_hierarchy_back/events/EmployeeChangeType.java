@@ -0,0 +1,7 @@
+package com.hierarchy.password_hierarchy_back.events;
+
+public enum EmployeeChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
@@ -0,0 +1,29 @@
+package com.hierarchy.password_hierarchy_back.events;
+
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+
+/**
+ * Flat, immutable copy of the employee columns the in-memory hierarchy views need.
+ *
+ * @param id                    employee id
+ * @param name                  employee name
+ * @param email                 employee email, may be {@code null}
+ * @param dependentId           id of the manager, {@code 0} for top-level employees
+ * @param passwordStrengthValue password strength score
+ */
+public record EmployeeState(long id, String name, String email, long dependentId, long passwordStrengthValue) {
+
+    public static EmployeeState of(Employee employee) {
+        return new EmployeeState(
+                employee.getId(),
+                employee.getName(),
+                employee.getEmail(),
+                employee.getDependentId() == null ? 0 : employee.getDependentId(),
+                employee.getPasswordStrengthValue() == null ? 0 : employee.getPasswordStrengthValue());
+    }
+
+    public boolean isRoot() {
+        return dependentId == 0;
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.hierarchy.password_hierarchy_back.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class HierarchyCycleException extends RuntimeException {
+
+    public HierarchyCycleException(String message) {
+        super(message);
+    }
+
+}
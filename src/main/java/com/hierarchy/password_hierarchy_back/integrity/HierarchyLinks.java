@@ -0,0 +1,15 @@
+package com.hierarchy.password_hierarchy_back.integrity;
+
+/**
+ * Every {@code (id, dependent_id)} pair of the employees table as parallel primitive arrays.
+ *
+ * @param ids       employee ids
+ * @param parentIds manager id of the employee at the same position, {@code 0} for top-level employees
+ */
+public record HierarchyLinks(long[] ids, long[] parentIds) {
+
+    public int size() {
+        return ids.length;
+    }
+
+}
@@ -0,0 +1,169 @@
+package com.hierarchy.password_hierarchy_back.integrity;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.HierarchyIntegrityDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks a whole {@link HierarchyLinks} table for cycles, orphans (a manager id with no row) and employees deeper than
+ * {@code maxDepth}, visiting every employee once.
+ * <p>
+ * Each walk follows manager links upwards until it reaches an employee whose depth is already known, a top-level
+ * employee, an orphan, or an employee already on the current walk, which closes a cycle. The walk is then unwound,
+ * giving every employee on it its depth and anchor, so no employee is walked twice.
+ */
+public final class HierarchyValidator {
+
+    private static final int TOP_LEVEL = -1;
+    private static final int MISSING = -2;
+
+    private static final byte UNVISITED = 0;
+    private static final byte ON_WALK = 1;
+    private static final byte DONE = 2;
+
+    private static final byte ANCHORED_AT_ROOT = 0;
+    private static final byte ANCHORED_AT_ORPHAN = 1;
+    private static final byte ANCHORED_AT_CYCLE = 2;
+
+    private HierarchyValidator() {
+    }
+
+    /**
+     * @param maxDepth    depth above which an employee anchored at a top-level employee is an outlier; top level is 1
+     * @param sampleLimit maximum number of ids listed per finding, and of ids listed per cycle
+     */
+    public static HierarchyIntegrityDTO validate(HierarchyLinks links, int maxDepth, int sampleLimit) {
+        final int size = links.size();
+        final long[] ids = links.ids();
+
+        final Map<Long, Integer> positions = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            positions.put(ids[i], i);
+        }
+        final int[] parent = new int[size];
+        int roots = 0;
+        for (int i = 0; i < size; i++) {
+            final long parentId = links.parentIds()[i];
+            if (parentId == 0) {
+                parent[i] = TOP_LEVEL;
+                roots++;
+            } else {
+                final Integer position = positions.get(parentId);
+                parent[i] = position == null ? MISSING : position;
+            }
+        }
+
+        final byte[] state = new byte[size];
+        final byte[] anchor = new byte[size];
+        final int[] depth = new int[size];
+        final int[] walk = new int[size];
+        final int[] walkIndex = new int[size];
+
+        final List<List<Long>> cycles = new ArrayList<>();
+        final List<Long> orphans = new ArrayList<>();
+        final List<Long> depthOutliers = new ArrayList<>();
+        int cycleCount = 0;
+        int cycleMembers = 0;
+        int orphanCount = 0;
+        int outlierCount = 0;
+        int detached = 0;
+        int deepest = 0;
+
+        for (int start = 0; start < size; start++) {
+            if (state[start] == DONE) {
+                continue;
+            }
+
+            int length = 0;
+            int current = start;
+            int baseDepth;
+            byte baseAnchor;
+            while (true) {
+                if (state[current] == DONE) {
+                    baseDepth = depth[current];
+                    baseAnchor = anchor[current];
+                    break;
+                }
+                if (state[current] == ON_WALK) {
+                    // The walk came back to itself: everything from that point on is the cycle.
+                    final int from = walkIndex[current];
+                    final List<Long> cycle = new ArrayList<>(Math.min(length - from, sampleLimit));
+                    for (int k = from; k < length; k++) {
+                        final int member = walk[k];
+                        state[member] = DONE;
+                        anchor[member] = ANCHORED_AT_CYCLE;
+                        if (cycle.size() < sampleLimit) {
+                            cycle.add(ids[member]);
+                        }
+                    }
+                    cycleCount++;
+                    cycleMembers += length - from;
+                    if (cycles.size() < sampleLimit) {
+                        cycles.add(cycle);
+                    }
+                    length = from;
+                    baseDepth = 0;
+                    baseAnchor = ANCHORED_AT_CYCLE;
+                    break;
+                }
+
+                state[current] = ON_WALK;
+                walkIndex[current] = length;
+                walk[length++] = current;
+
+                if (parent[current] == TOP_LEVEL || parent[current] == MISSING) {
+                    if (parent[current] == MISSING) {
+                        orphanCount++;
+                        if (orphans.size() < sampleLimit) {
+                            orphans.add(ids[current]);
+                        }
+                    }
+                    baseDepth = 0;
+                    baseAnchor = parent[current] == TOP_LEVEL ? ANCHORED_AT_ROOT : ANCHORED_AT_ORPHAN;
+                    break;
+                }
+                current = parent[current];
+            }
+
+            for (int k = length - 1; k >= 0; k--) {
+                final int employee = walk[k];
+                state[employee] = DONE;
+                depth[employee] = ++baseDepth;
+                anchor[employee] = baseAnchor;
+
+                if (baseAnchor == ANCHORED_AT_CYCLE) {
+                    detached++;
+                } else if (baseAnchor == ANCHORED_AT_ROOT) {
+                    deepest = Math.max(deepest, baseDepth);
+                    if (baseDepth > maxDepth) {
+                        outlierCount++;
+                        if (depthOutliers.size() < sampleLimit) {
+                            depthOutliers.add(ids[employee]);
+                        }
+                    }
+                }
+            }
+        }
+
+        return HierarchyIntegrityDTO.builder()
+                .valid(cycleCount == 0 && orphanCount == 0)
+                .checkedAt(System.currentTimeMillis())
+                .employeeCount(size)
+                .rootCount(roots)
+                .maxDepth(deepest)
+                .depthLimit(maxDepth)
+                .cycleCount(cycleCount)
+                .cycleMemberCount(cycleMembers)
+                .detachedCount(detached)
+                .orphanCount(orphanCount)
+                .depthOutlierCount(outlierCount)
+                .cycles(cycles)
+                .orphans(orphans)
+                .depthOutliers(depthOutliers)
+                .build();
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.hierarchy.password_hierarchy_back.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Mapping entities to response DTOs.
+ */
+@Name("com.hierarchy.DtoMapping")
+@Label("DTO Mapping")
+@Category({"Password Hierarchy", "Hierarchy"})
+@Description("Entities mapped to response DTOs")
+@Enabled(false)
+public class DtoMappingEvent extends Event {
+
+    @Label("DTO Type")
+    public String dtoType;
+
+    @Label("Entity Count")
+    @Description("Top-level entities mapped; dependents are mapped along with them")
+    public int entityCount;
+
+}
@@ -0,0 +1,30 @@
+package com.hierarchy.password_hierarchy_back.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Loading employees together with their eagerly fetched dependents.
+ */
+@Name("com.hierarchy.HierarchyLoad")
+@Label("Hierarchy Load")
+@Category({"Password Hierarchy", "Hierarchy"})
+@Description("Employee tree loaded from the database")
+@Enabled(false)
+public class HierarchyLoadEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Node Count")
+    @Description("Employees in the loaded trees, dependents included")
+    public int nodeCount;
+
+    @Label("Depth")
+    @Description("Levels in the deepest loaded tree")
+    public int depth;
+
+    @Label("Query Count")
+    @Description("JDBC statements executed by the load, -1 outside a timed request")
+    public int queryCount;
+
+}
@@ -0,0 +1,19 @@
+package com.hierarchy.password_hierarchy_back.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One {@link com.hierarchy.password_hierarchy_back.utils.PasswordUtils#encryptPassword(String)} call.
+ */
+@Name("com.hierarchy.PasswordHash")
+@Label("Password Hash")
+@Category({"Password Hierarchy", "Passwords"})
+@Description("BCrypt hashing of a password")
+@Enabled(false)
+public class PasswordHashEvent extends Event {
+
+    @Label("Cost")
+    @Description("BCrypt log2 work factor")
+    public int cost;
+
+}
@@ -0,0 +1,19 @@
+package com.hierarchy.password_hierarchy_back.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * One {@link com.hierarchy.password_hierarchy_back.utils.PasswordUtils#calculatePasswordStrength(String)} call.
+ */
+@Name("com.hierarchy.PasswordScore")
+@Label("Password Score")
+@Category({"Password Hierarchy", "Passwords"})
+@Description("Password strength scoring")
+@Enabled(false)
+public class PasswordScoreEvent extends Event {
+
+    @Label("Length")
+    @Description("Number of characters in the scored password")
+    public int length;
+
+}
@@ -0,0 +1,17 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkChangeResponseDTO {
+
+    private int rowsChanged;
+    private List<Long> employeeIds;
+
+}
@@ -1,6 +1,7 @@
 package com.hierarchy.password_hierarchy_back.models.dtos;
 
 import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
 import lombok.*;
 
 import java.util.List;
@@ -23,4 +24,8 @@ public class DependentDTO {
         return DependentDTO.builder().id(employee.getId()).name(employee.getName()).build();
     }
 
+    public static DependentDTO toDTO(HierarchyIndex index, int position) {
+        return DependentDTO.builder().id(index.idAt(position)).name(index.nameAt(position)).build();
+    }
+
 }
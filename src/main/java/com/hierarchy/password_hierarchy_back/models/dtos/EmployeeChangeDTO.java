@@ -0,0 +1,37 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import lombok.*;
+
+import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
+
+/**
+ * One changed employee row of a delta sync, without its dependents: clients patch rows by id and rebuild the tree
+ * from {@code dependentId}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChangeDTO {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String passwordStrengthLabel;
+    private Long passwordStrengthValue;
+    private Long dependentId;
+
+    public static EmployeeChangeDTO toDTO(EmployeeState state) {
+        return EmployeeChangeDTO.builder()
+                .id(state.id())
+                .name(state.name())
+                .email(state.email())
+                .passwordStrengthLabel(getLabelByStrength(state.passwordStrengthValue()))
+                .passwordStrengthValue(state.passwordStrengthValue())
+                .dependentId(state.dependentId())
+                .build();
+    }
+
+}
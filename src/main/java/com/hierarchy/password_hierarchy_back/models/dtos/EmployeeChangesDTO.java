@@ -0,0 +1,22 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Rows written and deleted after a client's version. Clients apply {@code deletedIds} before {@code changed} and send
+ * {@code version} as {@code since} on the next poll.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeChangesDTO {
+
+    private long version;
+    private List<EmployeeChangeDTO> changed;
+    private List<Long> deletedIds;
+
+}
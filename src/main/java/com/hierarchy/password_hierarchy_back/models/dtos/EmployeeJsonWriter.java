@@ -0,0 +1,113 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hierarchy.password_hierarchy_back.exceptions.HierarchyCycleException;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
+
+/**
+ * Writes employee trees straight from {@link Employee} entities or a {@link HierarchyIndex}, producing the same JSON as
+ * serializing {@link EmployeeResponseDTO#fromEntity(Employee)} without building the intermediate DTO graph.
+ */
+public final class EmployeeJsonWriter {
+
+    private EmployeeJsonWriter() {
+    }
+
+    public static void writeEmployees(JsonGenerator generator, List<Employee> employees) throws IOException {
+        generator.writeStartArray();
+        for (Employee employee : employees) {
+            writeEmployee(generator, employee);
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes the tree of every top-level employee in the index, in id order like the table.
+     */
+    public static void writeEmployees(JsonGenerator generator, HierarchyIndex index) throws IOException {
+        generator.writeStartArray();
+        for (int position = 0; position < index.size(); position++) {
+            if (index.dependentIdAt(position) == 0) {
+                writeEmployee(generator, index, position);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    /**
+     * Writes one employee and its dependents, in {@link EmployeeResponseDTO} field order.
+     *
+     * @throws HierarchyCycleException when an employee turns out to be its own transitive dependent
+     */
+    public static void writeEmployee(JsonGenerator generator, Employee employee) throws IOException {
+        writeEmployee(generator, employee, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static void writeEmployee(JsonGenerator generator, Employee employee, Set<Employee> ancestors) throws IOException {
+        if (!ancestors.add(employee)) {
+            throw new HierarchyCycleException("Employee hierarchy has a cycle through employee id " + employee.getId());
+        }
+        final Long strength = employee.getPasswordStrengthValue();
+
+        generator.writeStartObject();
+        writeNumberOrNull(generator, "id", employee.getId());
+        generator.writeStringField("name", employee.getName());
+        generator.writeStringField("email", employee.getEmail());
+        // The DTO never carries the password, but the property is part of the wire format.
+        generator.writeNullField("password");
+        generator.writeStringField("passwordStrengthLabel", strength == null ? null : getLabelByStrength(strength));
+        writeNumberOrNull(generator, "passwordStrengthValue", strength);
+        generator.writeNumberField("dependentId", employee.getDependentId() == null ? 0 : employee.getDependentId());
+
+        generator.writeArrayFieldStart("dependents");
+        if (employee.getDependents() != null) {
+            for (Employee dependent : employee.getDependents()) {
+                writeEmployee(generator, dependent, ancestors);
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+        ancestors.remove(employee);
+    }
+
+    /**
+     * Top-level employees head acyclic trees, so unlike the entity walk this one needs no cycle guard.
+     */
+    private static void writeEmployee(JsonGenerator generator, HierarchyIndex index, int position) throws IOException {
+        final long strength = index.strengthAt(position);
+
+        generator.writeStartObject();
+        generator.writeNumberField("id", index.idAt(position));
+        generator.writeStringField("name", index.nameAt(position));
+        generator.writeStringField("email", index.emailAt(position));
+        generator.writeNullField("password");
+        generator.writeStringField("passwordStrengthLabel", getLabelByStrength(strength));
+        generator.writeNumberField("passwordStrengthValue", strength);
+        generator.writeNumberField("dependentId", index.dependentIdAt(position));
+
+        generator.writeArrayFieldStart("dependents");
+        for (int slot = index.firstChild(position); slot < index.endChild(position); slot++) {
+            writeEmployee(generator, index, index.childAt(slot));
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeNumberOrNull(JsonGenerator generator, String field, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+
+}
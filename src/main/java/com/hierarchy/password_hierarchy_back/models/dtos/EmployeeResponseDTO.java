@@ -1,10 +1,17 @@
 package com.hierarchy.password_hierarchy_back.models.dtos;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hierarchy.password_hierarchy_back.exceptions.HierarchyCycleException;
 import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
 import lombok.*;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
 import static java.util.Collections.emptyList;
@@ -30,8 +37,20 @@ public class EmployeeResponseDTO {
         return employees.stream().map(EmployeeResponseDTO::fromEntity).toList();
     }
 
+    /**
+     * Maps an employee and all its dependents.
+     *
+     * @throws HierarchyCycleException when an employee turns out to be its own transitive dependent
+     */
     public static EmployeeResponseDTO fromEntity(Employee employee) {
-        return EmployeeResponseDTO.builder()
+        return fromEntity(employee, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static EmployeeResponseDTO fromEntity(Employee employee, Set<Employee> ancestors) {
+        if (!ancestors.add(employee)) {
+            throw new HierarchyCycleException("Employee hierarchy has a cycle through employee id " + employee.getId());
+        }
+        final EmployeeResponseDTO dto = EmployeeResponseDTO.builder()
                 .id(employee.getId())
                 .name(employee.getName())
                 .email(employee.getEmail())
@@ -41,9 +60,43 @@ public class EmployeeResponseDTO {
                 .dependents(employee.getDependents() == null ?
                         emptyList() :
                         employee.getDependents().stream()
-                                .map(EmployeeResponseDTO::fromEntity)
+                                .map(dependent -> fromEntity(dependent, ancestors))
                                 .toList())
                 .build();
+        ancestors.remove(employee);
+        return dto;
+    }
+
+    /**
+     * Maps the employee at {@code position} of the index and all its dependents, without touching the database.
+     *
+     * @throws HierarchyCycleException when an employee turns out to be its own transitive dependent
+     */
+    public static EmployeeResponseDTO fromIndex(HierarchyIndex index, int position) {
+        return fromIndex(index, position, new BitSet(index.size()));
+    }
+
+    private static EmployeeResponseDTO fromIndex(HierarchyIndex index, int position, BitSet ancestors) {
+        if (ancestors.get(position)) {
+            throw new HierarchyCycleException("Employee hierarchy has a cycle through employee id " + index.idAt(position));
+        }
+        ancestors.set(position);
+        final List<EmployeeResponseDTO> dependents = new ArrayList<>(index.endChild(position) - index.firstChild(position));
+        for (int slot = index.firstChild(position); slot < index.endChild(position); slot++) {
+            dependents.add(fromIndex(index, index.childAt(slot), ancestors));
+        }
+        ancestors.clear(position);
+
+        final long strength = index.strengthAt(position);
+        return EmployeeResponseDTO.builder()
+                .id(index.idAt(position))
+                .name(index.nameAt(position))
+                .email(index.emailAt(position))
+                .passwordStrengthLabel(getLabelByStrength(strength))
+                .passwordStrengthValue(strength)
+                .dependentId(index.dependentIdAt(position))
+                .dependents(dependents)
+                .build();
     }
 
 }
@@ -0,0 +1,63 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+
+import java.io.IOException;
+
+import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
+
+/**
+ * Writes employees as parallel column arrays instead of nested objects:
+ * <pre>{"id":[...],"name":[...],"email":[...],"strength":[...],"label":[...],"parentId":[...]}</pre>
+ * Entry {@code i} of every array describes the same employee, managers always come before their dependents, and
+ * {@code parentId} is {@code 0} for top-level employees, so a client can rebuild the tree in one pass.
+ */
+public final class FlatHierarchyWriter {
+
+    private FlatHierarchyWriter() {
+    }
+
+    public static void writeColumns(JsonGenerator generator, HierarchyIndex index, int[] positions) throws IOException {
+        generator.writeStartObject();
+
+        generator.writeArrayFieldStart("id");
+        for (int position : positions) {
+            generator.writeNumber(index.idAt(position));
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("name");
+        for (int position : positions) {
+            generator.writeString(index.nameAt(position));
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("email");
+        for (int position : positions) {
+            generator.writeString(index.emailAt(position));
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("strength");
+        for (int position : positions) {
+            generator.writeNumber(index.strengthAt(position));
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("label");
+        for (int position : positions) {
+            generator.writeString(getLabelByStrength(index.strengthAt(position)));
+        }
+        generator.writeEndArray();
+
+        generator.writeArrayFieldStart("parentId");
+        for (int position : positions) {
+            generator.writeNumber(index.dependentIdAt(position));
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+}
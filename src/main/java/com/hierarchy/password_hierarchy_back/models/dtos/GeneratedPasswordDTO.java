@@ -0,0 +1,16 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratedPasswordDTO {
+
+    private String password;
+    private long passwordStrengthValue;
+    private String passwordStrengthLabel;
+
+}
@@ -0,0 +1,34 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Result of a whole-table hierarchy check. The id lists are samples, capped by {@code hierarchy.integrity.sample-limit};
+ * the counts are exact.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HierarchyIntegrityDTO {
+
+    private boolean valid;
+    private long checkedAt;
+    private int employeeCount;
+    private int rootCount;
+    private int maxDepth;
+    private int depthLimit;
+    private int cycleCount;
+    private int cycleMemberCount;
+    // Employees that are not in a cycle but report, directly or not, to one.
+    private int detachedCount;
+    private int orphanCount;
+    private int depthOutlierCount;
+    private List<List<Long>> cycles;
+    private List<Long> orphans;
+    private List<Long> depthOutliers;
+
+}
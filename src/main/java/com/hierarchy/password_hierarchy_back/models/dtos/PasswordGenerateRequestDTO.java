@@ -0,0 +1,23 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.hierarchy.password_hierarchy_back.utils.StrengthLabel;
+import lombok.*;
+
+/**
+ * Asks for {@code count} passwords scoring at least {@code minStrength} and at least the lowest score of {@code label}.
+ * Every field is optional; without a {@code length} the shortest length that reaches the score is used, but never
+ * less than the configured default.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordGenerateRequestDTO {
+
+    private Integer count;
+    private Integer length;
+    private Long minStrength;
+    private StrengthLabel label;
+
+}
@@ -0,0 +1,21 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Moves {@code employeeIds}, with their subtrees, under the manager {@code dependentId}; {@code 0} moves them to the
+ * top level.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReparentRequestDTO {
+
+    private List<Long> employeeIds;
+    private Long dependentId;
+
+}
@@ -0,0 +1,18 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StrengthAggregateDTO {
+
+    private Long employeeId;
+    private Integer dependentCount;
+    private Long minStrength;
+    private Double averageStrength;
+    private Integer weakCount;
+
+}
@@ -0,0 +1,19 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StrengthHistogramDTO {
+
+    private Long total;
+    private Map<String, Long> labelCounts;
+    private List<Long> decileCounts;
+
+}
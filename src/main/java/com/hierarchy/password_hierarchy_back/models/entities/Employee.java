@@ -3,11 +3,15 @@ package com.hierarchy.password_hierarchy_back.models.entities;
 import com.hierarchy.password_hierarchy_back.models.dtos.EmployeeRequestDTO;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Builder
@@ -31,6 +35,11 @@ public class Employee {
     @Column(name = "dependent_id")
     private Long dependentId;
 
+    // Change sequence value of the last write through EmployeeService, for delta sync.
+    @Column(name = "row_version")
+    private long rowVersion;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(fetch = FetchType.EAGER)
     @JoinColumn(name = "dependent_id", insertable = false)
     private List<Employee> dependents = new ArrayList<>();
@@ -0,0 +1,324 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of employee changes, written through a memory-mapped file, plus a snapshot file.
+ * <p>
+ * {@link #checkpoint(Collection)} writes the full state to the snapshot under a new generation and then empties the
+ * journal, which both compacts it and bounds replay time. The journal only replays on top of the snapshot of the same
+ * generation, so a crash between the two steps leaves a valid snapshot and an ignored journal.
+ * <p>
+ * Journal layout: a header ({@code magic, format, generation}) followed by records framed as
+ * {@code length, crc32, payload}; a zero length marks the end. Every record carries the row version of its change,
+ * and the snapshot header the highest row version it includes, so {@link #recover()} knows how current the rows are.
+ * Instances are not thread-safe.
+ */
+public class ChangeJournal implements Closeable {
+
+    static final String JOURNAL_FILE = "changes.journal";
+    static final String SNAPSHOT_FILE = "hierarchy.snapshot";
+
+    private static final int JOURNAL_MAGIC = 0x484A4E4C;
+    private static final int SNAPSHOT_MAGIC = 0x48534E50;
+    private static final int FORMAT = 1;
+    // Format 1 snapshots predate the row version in the header and recover as version 0.
+    private static final int SNAPSHOT_FORMAT = 2;
+    private static final int HEADER_BYTES = 16;
+    private static final int FRAME_BYTES = 8;
+
+    private static final byte UPSERT = 0;
+    private static final byte DELETE = 1;
+
+    private final Path journalFile;
+    private final Path snapshotFile;
+    private final boolean forceOnAppend;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+
+    private long generation;
+
+    public ChangeJournal(Path directory, int capacityBytes, boolean forceOnAppend) throws IOException {
+        Files.createDirectories(directory);
+        this.journalFile = directory.resolve(JOURNAL_FILE);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        this.forceOnAppend = forceOnAppend;
+        this.channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacityBytes, HEADER_BYTES + 1024));
+
+        if (buffer.getInt(0) != JOURNAL_MAGIC) {
+            reset(0);
+        }
+        this.generation = buffer.getLong(8);
+        this.buffer.position(HEADER_BYTES);
+    }
+
+    /**
+     * Rebuilds the employee rows from the snapshot and the journal tail, and positions the journal for appends.
+     *
+     * @return the recovered rows, or empty when there is no snapshot to start from
+     */
+    public Optional<Recovered> recover() throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            reset(0);
+            return Optional.empty();
+        }
+
+        final Map<Long, EmployeeState> employees = new HashMap<>();
+        final SnapshotHeader snapshot = readSnapshot(employees);
+        long rowVersion = snapshot.rowVersion();
+
+        if (buffer.getLong(8) != snapshot.generation()) {
+            // The last checkpoint wrote its snapshot but did not get to empty the journal.
+            reset(snapshot.generation());
+            return Optional.of(new Recovered(employees.values(), rowVersion));
+        }
+
+        int position = HEADER_BYTES;
+        while (position + FRAME_BYTES <= buffer.capacity()) {
+            final int length = buffer.getInt(position);
+            if (length <= 0 || position + FRAME_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            final ByteBuffer payload = buffer.slice(position + FRAME_BYTES, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                // Torn write at the tail: everything before it is still good.
+                break;
+            }
+            rowVersion = Math.max(rowVersion, replay(payload, employees));
+            position += FRAME_BYTES + length;
+        }
+        writeEndMarker(position);
+        buffer.position(position);
+        return Optional.of(new Recovered(employees.values(), rowVersion));
+    }
+
+    /**
+     * Appends one change.
+     *
+     * @return {@code false} when the journal is full and needs a {@link #checkpoint(Collection)} first
+     */
+    public boolean append(EmployeeChangeEvent event) {
+        final ByteBuffer payload = encode(event);
+        final int length = payload.remaining();
+        final int position = buffer.position();
+        if (position + FRAME_BYTES + length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        crc.reset();
+        crc.update(payload.duplicate());
+        final int next = position + FRAME_BYTES + length;
+        buffer.put(position + FRAME_BYTES, payload, 0, length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        writeEndMarker(next);
+        // The length goes last, so a reader never sees a frame whose payload is not there yet.
+        buffer.putInt(position, length);
+        buffer.position(next);
+
+        if (forceOnAppend) {
+            buffer.force();
+        }
+        return true;
+    }
+
+    /**
+     * Writes {@code employees} as the new snapshot and empties the journal.
+     *
+     * @param rowVersion highest row version applied to {@code employees}
+     */
+    public void checkpoint(Collection<EmployeeState> employees, long rowVersion) throws IOException {
+        final long nextGeneration = generation + 1;
+        writeSnapshot(employees, nextGeneration, rowVersion);
+        reset(nextGeneration);
+    }
+
+    public int usedBytes() {
+        return buffer.position();
+    }
+
+    public int capacityBytes() {
+        return buffer.capacity();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void reset(long newGeneration) {
+        writeEndMarker(HEADER_BYTES);
+        buffer.putInt(0, JOURNAL_MAGIC);
+        buffer.putInt(4, FORMAT);
+        buffer.putLong(8, newGeneration);
+        buffer.force();
+        buffer.position(HEADER_BYTES);
+        generation = newGeneration;
+    }
+
+    /**
+     * Writes the end marker. Frames past it may survive from an earlier generation, but readers never get to them.
+     */
+    private void writeEndMarker(int position) {
+        if (position + 4 <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private ByteBuffer encode(EmployeeChangeEvent event) {
+        final EmployeeState state = event.current();
+        final byte[] name = state == null ? null : bytes(state.name());
+        final byte[] email = state == null ? null : bytes(state.email());
+        final int size = 1 + 8 + 8 + (state == null ? 0 : 8 + 8 + 4 + length(name) + 4 + length(email));
+
+        final ByteBuffer payload = size <= scratch.capacity() ? scratch.clear() : ByteBuffer.allocate(size);
+        payload.put(state == null ? DELETE : UPSERT);
+        payload.putLong(event.version());
+        payload.putLong(event.employeeId());
+        if (state != null) {
+            payload.putLong(state.dependentId());
+            payload.putLong(state.passwordStrengthValue());
+            putBytes(payload, name);
+            putBytes(payload, email);
+        }
+        return payload.flip();
+    }
+
+    /**
+     * @return the row version of the replayed change
+     */
+    private static long replay(ByteBuffer payload, Map<Long, EmployeeState> employees) {
+        final byte type = payload.get();
+        final long rowVersion = payload.getLong();
+        final long id = payload.getLong();
+        if (type == DELETE) {
+            employees.remove(id);
+            return rowVersion;
+        }
+        final long dependentId = payload.getLong();
+        final long strength = payload.getLong();
+        final String name = getString(payload);
+        final String email = getString(payload);
+        employees.put(id, new EmployeeState(id, name, email, dependentId, strength));
+        return rowVersion;
+    }
+
+    private void writeSnapshot(Collection<EmployeeState> employees, long snapshotGeneration, long rowVersion)
+            throws IOException {
+        final Path temporary = snapshotFile.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeLong(snapshotGeneration);
+            out.writeLong(rowVersion);
+            out.writeInt(employees.size());
+            for (EmployeeState employee : employees) {
+                out.writeLong(employee.id());
+                out.writeLong(employee.dependentId());
+                out.writeLong(employee.passwordStrengthValue());
+                writeString(out, employee.name());
+                writeString(out, employee.email());
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private SnapshotHeader readSnapshot(Map<Long, EmployeeState> employees) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Unrecognized hierarchy snapshot " + snapshotFile);
+            }
+            final int format = in.readInt();
+            if (format != FORMAT && format != SNAPSHOT_FORMAT) {
+                throw new IOException("Unrecognized hierarchy snapshot " + snapshotFile);
+            }
+            final long snapshotGeneration = in.readLong();
+            final long rowVersion = format == FORMAT ? 0 : in.readLong();
+            final int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                final long id = in.readLong();
+                final long dependentId = in.readLong();
+                final long strength = in.readLong();
+                employees.put(id, new EmployeeState(id, readString(in), readString(in), dependentId, strength));
+            }
+            return new SnapshotHeader(snapshotGeneration, rowVersion);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static void putBytes(ByteBuffer payload, byte[] value) {
+        payload.putInt(value == null ? -1 : value.length);
+        if (value != null) {
+            payload.put(value);
+        }
+    }
+
+    private static String getString(ByteBuffer payload) {
+        final int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        payload.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = bytes(value);
+        out.writeInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rows rebuilt by {@link #recover()}.
+     *
+     * @param rowVersion highest row version in the snapshot and the replayed tail
+     */
+    public record Recovered(Collection<EmployeeState> employees, long rowVersion) {
+    }
+
+    private record SnapshotHeader(long generation, long rowVersion) {
+    }
+
+}
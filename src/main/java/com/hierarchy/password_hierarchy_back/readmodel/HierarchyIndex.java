@@ -0,0 +1,303 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Immutable array layout of the hierarchy: one primitive column per employee field, each employee's manager position,
+ * and the dependents of every employee stored contiguously (compressed sparse rows), plus a breadth-first order from
+ * the roots.
+ * <p>
+ * Positions follow ascending id, so ids are found by binary search without a boxed lookup map, and dependents are
+ * listed in id order. Equal names and e-mails share one {@code String} instance. {@link #structureBytes()} and
+ * {@link #stringBytes()} report what the layout costs.
+ * <p>
+ * Employees not reachable from a root (a reporting cycle) have a position but are left out of the order.
+ */
+public class HierarchyIndex {
+
+    private final long revision;
+    private final long[] ids;
+    private final long[] dependentIds;
+    // Scores are percentages, so an int column loses nothing.
+    private final int[] strengths;
+    private final String[] names;
+    private final String[] emails;
+    private final int[] parent;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] order;
+    private final int[] depth;
+
+    private HierarchyIndex(long revision, long[] ids, long[] dependentIds, int[] strengths, String[] names,
+                           String[] emails, int[] parent, int[] childOffsets, int[] children, int[] order, int[] depth) {
+        this.revision = revision;
+        this.ids = ids;
+        this.dependentIds = dependentIds;
+        this.strengths = strengths;
+        this.names = names;
+        this.emails = emails;
+        this.parent = parent;
+        this.childOffsets = childOffsets;
+        this.children = children;
+        this.order = order;
+        this.depth = depth;
+    }
+
+    public static HierarchyIndex build(Collection<EmployeeState> states, long revision) {
+        final EmployeeState[] employees = states.toArray(new EmployeeState[0]);
+        Arrays.sort(employees, Comparator.comparingLong(EmployeeState::id));
+        final int size = employees.length;
+
+        final long[] ids = new long[size];
+        final long[] dependentIds = new long[size];
+        final int[] strengths = new int[size];
+        final String[] names = new String[size];
+        final String[] emails = new String[size];
+        final Map<String, String> strings = new HashMap<>();
+        for (int node = 0; node < size; node++) {
+            final EmployeeState employee = employees[node];
+            ids[node] = employee.id();
+            dependentIds[node] = employee.dependentId();
+            strengths[node] = (int) employee.passwordStrengthValue();
+            names[node] = share(strings, employee.name());
+            emails[node] = share(strings, employee.email());
+        }
+
+        // Manager position per employee (-1 for roots and orphans), and children laid out by manager.
+        final int[] parent = new int[size];
+        final int[] childOffsets = new int[size + 1];
+        for (int node = 0; node < size; node++) {
+            final int manager = dependentIds[node] == 0 ? -1 : Arrays.binarySearch(ids, dependentIds[node]);
+            parent[node] = Math.max(manager, -1);
+            if (manager >= 0) {
+                childOffsets[manager + 1]++;
+            }
+        }
+        for (int node = 0; node < size; node++) {
+            childOffsets[node + 1] += childOffsets[node];
+        }
+        final int[] children = new int[size];
+        final int[] fill = childOffsets.clone();
+        for (int node = 0; node < size; node++) {
+            if (parent[node] >= 0) {
+                children[fill[parent[node]]++] = node;
+            }
+        }
+
+        // Breadth-first order from the roots: every manager comes before its dependents.
+        final int[] order = new int[size];
+        final int[] depth = new int[size];
+        Arrays.fill(depth, -1);
+        int tail = 0;
+        for (int node = 0; node < size; node++) {
+            if (parent[node] < 0) {
+                order[tail++] = node;
+                depth[node] = 0;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            final int node = order[head];
+            for (int c = childOffsets[node]; c < childOffsets[node + 1]; c++) {
+                depth[children[c]] = depth[node] + 1;
+                order[tail++] = children[c];
+            }
+        }
+
+        return new HierarchyIndex(revision, ids, dependentIds, strengths, names, emails, parent, childOffsets,
+                children, tail == size ? order : Arrays.copyOf(order, tail), depth);
+    }
+
+    /**
+     * Read model revision the index was built from.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return the position of {@code id}, or {@code -1} when there is no such employee
+     */
+    public int positionOf(long id) {
+        final int position = Arrays.binarySearch(ids, id);
+        return position < 0 ? -1 : position;
+    }
+
+    public long idAt(int position) {
+        return ids[position];
+    }
+
+    public String nameAt(int position) {
+        return names[position];
+    }
+
+    public String emailAt(int position) {
+        return emails[position];
+    }
+
+    public long strengthAt(int position) {
+        return strengths[position];
+    }
+
+    /**
+     * @return the manager id, {@code 0} for top-level employees
+     */
+    public long dependentIdAt(int position) {
+        return dependentIds[position];
+    }
+
+    /**
+     * Copies the columns of one employee into a new {@link EmployeeState}.
+     */
+    public EmployeeState employeeAt(int position) {
+        return new EmployeeState(ids[position], names[position], emails[position], dependentIds[position],
+                strengths[position]);
+    }
+
+    /**
+     * @return the manager's position, or {@code -1} for roots and employees whose manager is missing
+     */
+    public int parentOf(int position) {
+        return parent[position];
+    }
+
+    public int firstChild(int position) {
+        return childOffsets[position];
+    }
+
+    public int endChild(int position) {
+        return childOffsets[position + 1];
+    }
+
+    public int childAt(int slot) {
+        return children[slot];
+    }
+
+    /**
+     * @return levels below the top, or {@code -1} when the employee is not reachable from a root
+     */
+    public int depthOf(int position) {
+        return depth[position];
+    }
+
+    /**
+     * Positions reachable from the roots, every manager before its dependents.
+     */
+    public int[] breadthFirstOrder() {
+        return order;
+    }
+
+    /**
+     * Positions of {@code position} and its transitive dependents, breadth-first. An employee caught in a reporting
+     * cycle has no well-defined subtree and is returned alone.
+     */
+    public int[] subtreeOrder(int position) {
+        if (depth[position] < 0) {
+            return new int[]{position};
+        }
+        int[] subtree = new int[16];
+        subtree[0] = position;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            final int node = subtree[head];
+            final int end = childOffsets[node + 1];
+            for (int c = childOffsets[node]; c < end; c++) {
+                if (tail == subtree.length) {
+                    subtree = Arrays.copyOf(subtree, subtree.length * 2);
+                }
+                subtree[tail++] = children[c];
+            }
+        }
+        return Arrays.copyOf(subtree, tail);
+    }
+
+    /**
+     * Positions of the managers of {@code position}, the direct manager first, up to the top level or a missing
+     * manager. In a reporting cycle every member is listed once.
+     */
+    public int[] ancestorsOf(int position) {
+        if (depth[position] >= 0) {
+            final int[] ancestors = new int[depth[position]];
+            int node = position;
+            for (int i = 0; i < ancestors.length; i++) {
+                node = parent[node];
+                ancestors[i] = node;
+            }
+            return ancestors;
+        }
+
+        final BitSet seen = new BitSet(ids.length);
+        seen.set(position);
+        int[] ancestors = new int[8];
+        int count = 0;
+        for (int node = parent[position]; node >= 0 && !seen.get(node); node = parent[node]) {
+            seen.set(node);
+            if (count == ancestors.length) {
+                ancestors = Arrays.copyOf(ancestors, count * 2);
+            }
+            ancestors[count++] = node;
+        }
+        return Arrays.copyOf(ancestors, count);
+    }
+
+    /**
+     * Approximate heap taken by the arrays, assuming compressed references: the per-employee cost of the layout.
+     */
+    public long structureBytes() {
+        final int size = ids.length;
+        // ids and dependentIds; strengths, names, emails, parent, children and depth; then the offsets and the order.
+        return 2 * arrayBytes(size, Long.BYTES)
+                + 6 * arrayBytes(size, Integer.BYTES)
+                + arrayBytes(size + 1, Integer.BYTES)
+                + arrayBytes(order.length, Integer.BYTES);
+    }
+
+    /**
+     * Approximate heap taken by the distinct name and e-mail strings the index holds.
+     */
+    public long stringBytes() {
+        final Map<String, Boolean> counted = new IdentityHashMap<>();
+        long bytes = 0;
+        for (String[] column : new String[][]{names, emails}) {
+            for (String value : column) {
+                if (value != null && counted.put(value, Boolean.TRUE) == null) {
+                    bytes += stringBytes(value);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static String share(Map<String, String> strings, String value) {
+        return value == null ? null : strings.computeIfAbsent(value, key -> key);
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return align(16 + (long) length * elementBytes);
+    }
+
+    private static long stringBytes(String value) {
+        boolean latin1 = true;
+        for (int i = 0; i < value.length() && latin1; i++) {
+            latin1 = value.charAt(i) <= 0xFF;
+        }
+        // The String object itself, plus its byte[] (one byte per char when compact strings can use Latin-1).
+        return 24 + arrayBytes(value.length(), latin1 ? 1 : 2);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of every employee row, kept current by {@link EmployeeChangeEvent}s.
+ * <p>
+ * Rows are held in a {@link HierarchyIndex}, a few dozen bytes per employee, plus the changes applied since it was
+ * built. The index is rebuilt from both on the first read after a change, or once the changes pile up, so between
+ * writes the model costs no more than the index.
+ * <p>
+ * Loading happens in two steps so a full reload never loses a concurrent write: {@link #beginLoad()} starts queueing
+ * changes, and {@link #completeLoad(Collection, long)} installs the loaded rows and re-applies whatever was queued.
+ * <p>
+ * Reads share a read lock, so they never wait on each other; only applying a change or swapping the index takes the
+ * write lock. Writes made through other instances come in through {@link ReadModelBootstrap#syncWithDatabase()}.
+ * <p>
+ * The last version applied is kept per employee only for changes newer than the last load or sync: anything at or
+ * below that version is already in the rows, so the model holds versions for recent writes, not for every employee.
+ */
+@Component
+public class HierarchyReadModel {
+
+    private static final int MIN_CHANGES_BEFORE_REBUILD = 1024;
+
+    // Rows changed since the index was built; a null value marks a deleted row.
+    private final Map<Long, EmployeeState> changes = new HashMap<>();
+    private final List<EmployeeChangeEvent> pendingChanges = new ArrayList<>();
+    // Version of the last change applied per employee, above syncedVersion only: changes arrive after their
+    // transaction commits, so two writers can hand them over in the opposite order from the one they committed in.
+    private final Map<Long, Long> appliedVersions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Starts out loading, so changes made before the first load are queued rather than lost.
+    private boolean loading = true;
+    private volatile boolean ready;
+    private volatile long version;
+    // Row version up to which every committed write is in the rows.
+    private long syncedVersion;
+    private volatile long revision;
+    private volatile long loadCount;
+    private volatile HierarchyIndex index = HierarchyIndex.build(List.of(), 0);
+
+    /**
+     * Applies a committed change, unless a later change to the same employee was applied already.
+     *
+     * @return whether the change was applied
+     */
+    public boolean apply(EmployeeChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            final Long applied = appliedVersions.get(event.employeeId());
+            if (event.version() <= syncedVersion || applied != null && applied > event.version()) {
+                return false;
+            }
+            appliedVersions.put(event.employeeId(), event.version());
+            if (loading) {
+                pendingChanges.add(event);
+            }
+            applyState(event);
+            version = Math.max(version, event.version());
+            revision++;
+            if (changes.size() >= Math.max(MIN_CHANGES_BEFORE_REBUILD, index.size() / 8)) {
+                rebuildIndex();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            pendingChanges.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Installs loaded rows and re-applies the changes queued since {@link #beginLoad()} that are newer than them.
+     *
+     * @param rowVersion row version the loaded rows are current as of
+     */
+    public void completeLoad(Collection<EmployeeState> states, long rowVersion) {
+        lock.writeLock().lock();
+        try {
+            index = HierarchyIndex.build(states, revision + 1);
+            version = Math.max(version, rowVersion);
+            changes.clear();
+            for (EmployeeChangeEvent event : pendingChanges) {
+                // The load already saw this change, or a later one to the same employee.
+                if (event.version() > rowVersion) {
+                    applyState(event);
+                }
+            }
+            pendingChanges.clear();
+            advanceSyncedVersion(rowVersion);
+            loading = false;
+            ready = true;
+            revision++;
+            loadCount++;
+            if (!changes.isEmpty()) {
+                rebuildIndex();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that every write up to the row version is in the rows, so older changes still on their way are dropped.
+     *
+     * @param applied whether rows read back from the database, rather than published, were applied; counted as a load,
+     *                since views that follow the published changes never saw them
+     */
+    public void completeSync(long rowVersion, boolean applied) {
+        lock.writeLock().lock();
+        try {
+            advanceSyncedVersion(rowVersion);
+            if (applied) {
+                loadCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Highest row version applied so far.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Counter bumped by every change and reload, for views derived from the model to detect staleness.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Number of completed full loads and database syncs, for views that follow changes incrementally but must rebuild
+     * after the model took in rows they were not told about.
+     */
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Array layout of the current rows, rebuilt on first use after a change.
+     */
+    public HierarchyIndex getIndex() {
+        final HierarchyIndex current = index;
+        if (current.getRevision() == revision) {
+            return current;
+        }
+        lock.writeLock().lock();
+        try {
+            // Changes are applied under this lock too, so the rows and the revision match.
+            if (index.getRevision() != revision) {
+                rebuildIndex();
+            }
+            return index;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<EmployeeState> get(long id) {
+        lock.readLock().lock();
+        try {
+            if (changes.containsKey(id)) {
+                return Optional.ofNullable(changes.get(id));
+            }
+            final int position = index.positionOf(id);
+            return position < 0 ? Optional.empty() : Optional.of(index.employeeAt(position));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<EmployeeState> getAll() {
+        lock.readLock().lock();
+        try {
+            return collectAll();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate heap taken by the per-employee versions of changes newer than the last load or sync.
+     */
+    public long appliedVersionBytes() {
+        lock.readLock().lock();
+        try {
+            // A HashMap node, its boxed id and version, and its share of the table.
+            return appliedVersions.size() * 72L;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int size = index.size();
+            for (Map.Entry<Long, EmployeeState> change : changes.entrySet()) {
+                final boolean indexed = index.positionOf(change.getKey()) >= 0;
+                if (change.getValue() == null && indexed) {
+                    size--;
+                } else if (change.getValue() != null && !indexed) {
+                    size++;
+                }
+            }
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<EmployeeState> collectAll() {
+        final List<EmployeeState> employees = new ArrayList<>(index.size() + changes.size());
+        for (int position = 0; position < index.size(); position++) {
+            if (!changes.containsKey(index.idAt(position))) {
+                employees.add(index.employeeAt(position));
+            }
+        }
+        for (EmployeeState changed : changes.values()) {
+            if (changed != null) {
+                employees.add(changed);
+            }
+        }
+        return employees;
+    }
+
+    private void rebuildIndex() {
+        index = HierarchyIndex.build(collectAll(), revision);
+        changes.clear();
+    }
+
+    private void advanceSyncedVersion(long rowVersion) {
+        if (rowVersion > syncedVersion) {
+            syncedVersion = rowVersion;
+            // Deleted employees included: until now a late, older change could still have brought them back.
+            appliedVersions.values().removeIf(applied -> applied <= rowVersion);
+        }
+    }
+
+    private void applyState(EmployeeChangeEvent event) {
+        if (event.current() == null) {
+            changes.put(event.previous().id(), null);
+        } else {
+            changes.put(event.current().id(), event.current());
+        }
+    }
+
+}
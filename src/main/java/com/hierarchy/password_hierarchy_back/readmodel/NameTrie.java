@@ -0,0 +1,335 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Prefix trie over {@linkplain #normalize(String) normalized} employee names, for autocomplete.
+ * <p>
+ * Every name is indexed under its full normalized form and under each suffix that starts a word, so {@code "sil"}
+ * finds "João Silva". Nodes live in parallel arrays, one {@code char} per edge with children in a first-child /
+ * next-sibling list kept in character order, so a pre-order walk below a prefix yields matches alphabetically.
+ * Removing a name prunes the branches it leaves empty and recycles their slots. Instances are not thread-safe.
+ */
+public class NameTrie {
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final long[] NO_IDS = new long[0];
+
+    private char[] labels;
+    private int[] parents;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private long[][] ids;
+    private int nodeCount = 1;
+    private int freeList = NONE;
+    private int freeCount;
+
+    private final Map<Long, String> names = new HashMap<>();
+
+    public NameTrie() {
+        this(64);
+    }
+
+    public NameTrie(int capacity) {
+        final int nodes = Math.max(capacity, 16);
+        labels = new char[nodes];
+        parents = new int[nodes];
+        firstChild = new int[nodes];
+        nextSibling = new int[nodes];
+        ids = new long[nodes][];
+        parents[ROOT] = NONE;
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+    }
+
+    public static NameTrie build(Collection<EmployeeState> states) {
+        // Short names share most of their prefixes; this avoids regrowing the arrays for typical data.
+        final NameTrie trie = new NameTrie(states.size() * 8);
+        for (EmployeeState state : states) {
+            trie.put(state.id(), state.name());
+        }
+        return trie;
+    }
+
+    /**
+     * Accent- and case-folds a name: decomposes it, drops combining marks, lower-cases it and collapses whitespace.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        final String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        final StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            final int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (Character.isWhitespace(c) || Character.isSpaceChar(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Indexes {@code name} for employee {@code id}, replacing whatever name the id had. A {@code null} name removes it.
+     */
+    public void put(long id, String name) {
+        if (name == null) {
+            remove(id);
+            return;
+        }
+        final String previous = names.put(id, name);
+        if (name.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        for (String key : keys(normalize(name))) {
+            final int node = insertPath(key);
+            ids[node] = withId(ids[node], id);
+        }
+    }
+
+    public void remove(long id) {
+        final String previous = names.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+    }
+
+    /**
+     * Ids of up to {@code limit} employees with a name, or a word of it, starting with {@code prefix}, in alphabetical
+     * order of the matching text. Blank prefixes match nothing.
+     */
+    public long[] search(String prefix, int limit) {
+        final String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return NO_IDS;
+        }
+        final int start = find(key);
+        if (start == NONE) {
+            return NO_IDS;
+        }
+
+        // An employee matches once per indexed word, so the walk can see the same id more than once.
+        final Set<Long> found = new LinkedHashSet<>();
+        int node = start;
+        while (node != NONE && found.size() < limit) {
+            final long[] nodeIds = ids[node];
+            if (nodeIds != null) {
+                for (int i = 0; i < nodeIds.length && found.size() < limit; i++) {
+                    found.add(nodeIds[i]);
+                }
+            }
+            node = nextInPreOrder(node, start);
+        }
+
+        final long[] result = new long[found.size()];
+        int i = 0;
+        for (long id : found) {
+            result[i++] = id;
+        }
+        return result;
+    }
+
+    public String nameOf(long id) {
+        return names.get(id);
+    }
+
+    /**
+     * Number of indexed employees.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Number of live nodes, the root included.
+     */
+    public int nodeCount() {
+        return nodeCount - freeCount;
+    }
+
+    private static List<String> keys(String normalized) {
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        final List<String> keys = new ArrayList<>(4);
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private void unindex(long id, String name) {
+        for (String key : keys(normalize(name))) {
+            int node = find(key);
+            if (node == NONE) {
+                continue;
+            }
+            ids[node] = withoutId(ids[node], id);
+            while (node != ROOT && ids[node] == null && firstChild[node] == NONE) {
+                final int parent = parents[node];
+                unlink(parent, node);
+                release(node);
+                node = parent;
+            }
+        }
+    }
+
+    private int find(String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length() && node != NONE; i++) {
+            node = child(node, key.charAt(i));
+        }
+        return node;
+    }
+
+    private int child(int node, char label) {
+        for (int child = firstChild[node]; child != NONE && labels[child] <= label; child = nextSibling[child]) {
+            if (labels[child] == label) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int insertPath(String key) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            final char label = key.charAt(i);
+            int previous = NONE;
+            int child = firstChild[node];
+            while (child != NONE && labels[child] < label) {
+                previous = child;
+                child = nextSibling[child];
+            }
+            if (child == NONE || labels[child] != label) {
+                final int created = allocate(node, label);
+                nextSibling[created] = child;
+                if (previous == NONE) {
+                    firstChild[node] = created;
+                } else {
+                    nextSibling[previous] = created;
+                }
+                child = created;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * Next node of a pre-order walk limited to the subtree of {@code start}, or {@link #NONE} when it is done.
+     */
+    private int nextInPreOrder(int node, int start) {
+        if (firstChild[node] != NONE) {
+            return firstChild[node];
+        }
+        while (node != start) {
+            if (nextSibling[node] != NONE) {
+                return nextSibling[node];
+            }
+            node = parents[node];
+        }
+        return NONE;
+    }
+
+    private int allocate(int parent, char label) {
+        final int node;
+        if (freeList != NONE) {
+            node = freeList;
+            freeList = nextSibling[node];
+            freeCount--;
+        } else {
+            if (nodeCount == labels.length) {
+                grow();
+            }
+            node = nodeCount++;
+        }
+        labels[node] = label;
+        parents[node] = parent;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        ids[node] = null;
+        return node;
+    }
+
+    private void release(int node) {
+        nextSibling[node] = freeList;
+        freeList = node;
+        freeCount++;
+    }
+
+    private void unlink(int parent, int node) {
+        if (firstChild[parent] == node) {
+            firstChild[parent] = nextSibling[node];
+            return;
+        }
+        int sibling = firstChild[parent];
+        while (nextSibling[sibling] != node) {
+            sibling = nextSibling[sibling];
+        }
+        nextSibling[sibling] = nextSibling[node];
+    }
+
+    private void grow() {
+        final int capacity = labels.length * 2;
+        labels = Arrays.copyOf(labels, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+    }
+
+    /**
+     * Ids on a node stay sorted, so employees with the same name are always suggested in the same order.
+     */
+    private static long[] withId(long[] current, long id) {
+        if (current == null) {
+            return new long[]{id};
+        }
+        final int found = Arrays.binarySearch(current, id);
+        if (found >= 0) {
+            return current;
+        }
+        final int insertAt = -found - 1;
+        final long[] updated = new long[current.length + 1];
+        System.arraycopy(current, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+        return updated;
+    }
+
+    private static long[] withoutId(long[] current, long id) {
+        final int found = current == null ? -1 : Arrays.binarySearch(current, id);
+        if (found < 0) {
+            return current;
+        }
+        if (current.length == 1) {
+            return null;
+        }
+        final long[] updated = new long[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, found);
+        System.arraycopy(current, found + 1, updated, found, current.length - found - 1);
+        return updated;
+    }
+
+}
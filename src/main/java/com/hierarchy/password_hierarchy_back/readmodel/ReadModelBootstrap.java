@@ -0,0 +1,226 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads the {@link HierarchyReadModel} at startup and keeps it, and the {@link ChangeJournal}, in step with writes.
+ * <p>
+ * With the journal enabled, startup replays the last snapshot plus the journal tail instead of scanning the table.
+ * The journal only holds writes made through this instance, so a table scan still runs in the background afterwards
+ * ({@code hierarchy.journal.reconcile-on-startup}) to pick up writes made elsewhere.
+ * <p>
+ * Once loaded, the model only hears about writes made through this instance. Every
+ * {@code hierarchy.read-model.sync-interval-ms} the change sequence is compared with the last version synced, and
+ * when another instance has written since, the changed and deleted rows are read back and applied.
+ */
+@Component
+@Order(0)
+public class ReadModelBootstrap implements ApplicationRunner, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModelBootstrap.class);
+
+    private final HierarchyReadModel readModel;
+    private final EmployeeRepo employeeRepository;
+    private final ChangeJournal journal;
+    private final int checkpointBytes;
+    private final boolean reconcileOnStartup;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private boolean journalRecovered;
+    // Change sequence version up to which every write is in the model.
+    private volatile long syncedRowVersion;
+
+    @Autowired
+    public ReadModelBootstrap(HierarchyReadModel readModel, EmployeeRepo employeeRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${hierarchy.journal.enabled:false}") boolean journalEnabled,
+                              @Value("${hierarchy.journal.directory:data/journal}") Path directory,
+                              @Value("${hierarchy.journal.capacity-bytes:67108864}") int capacityBytes,
+                              @Value("${hierarchy.journal.checkpoint-bytes:50331648}") int checkpointBytes,
+                              @Value("${hierarchy.journal.force-on-append:false}") boolean forceOnAppend,
+                              @Value("${hierarchy.journal.reconcile-on-startup:true}") boolean reconcileOnStartup) throws IOException {
+        this.readModel = readModel;
+        this.employeeRepository = employeeRepository;
+        this.journal = journalEnabled ? new ChangeJournal(directory, capacityBytes, forceOnAppend) : null;
+        this.checkpointBytes = checkpointBytes;
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        final long start = System.nanoTime();
+
+        if (journal != null && recoverFromJournal()) {
+            log.info("Hierarchy read model replayed from journal: {} employees in {} ms",
+                    readModel.size(), (System.nanoTime() - start) / 1_000_000);
+            logFootprint();
+            if (reconcileOnStartup) {
+                final Thread reconcile = new Thread(this::reload, "hierarchy-reconcile");
+                reconcile.setDaemon(true);
+                reconcile.start();
+            }
+        } else {
+            reload();
+            log.info("Hierarchy read model loaded from the database: {} employees in {} ms",
+                    readModel.size(), (System.nanoTime() - start) / 1_000_000);
+            logFootprint();
+        }
+    }
+
+    /**
+     * Reloads the read model from the table and, with the journal enabled, checkpoints the result.
+     */
+    public void reload() {
+        // Read first, so a write committing during the load is read again by the next sync rather than missed.
+        final long rowVersion = employeeRepository.currentRowVersion();
+        readModel.beginLoad();
+        readModel.completeLoad(employeeRepository.findAllStates(), rowVersion);
+        syncedRowVersion = rowVersion;
+        if (journal != null) {
+            synchronized (this) {
+                checkpoint();
+            }
+        }
+    }
+
+    /**
+     * Runs once the write has committed, so a rolled-back write never reaches the model or the journal. Ordered first,
+     * so listeners that read the model see the change.
+     */
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEmployeeChange(EmployeeChangeEvent event) {
+        applyChange(event);
+    }
+
+    /**
+     * Applies the writes made through other instances since the last sync, when the change sequence shows there are
+     * any. The version is read first and stamped on every row read back: writers hold the sequence row until they
+     * commit, so a change of this instance published later with an older version cannot overwrite them.
+     */
+    @Scheduled(initialDelayString = "${hierarchy.read-model.sync-interval-ms:5000}",
+            fixedDelayString = "${hierarchy.read-model.sync-interval-ms:5000}")
+    public void syncWithDatabase() {
+        if (!readModel.isReady()) {
+            return;
+        }
+        final long since = syncedRowVersion;
+        final RowsSince rows = readOnlyTransaction.execute(status -> {
+            final long rowVersion = employeeRepository.currentRowVersion();
+            if (rowVersion <= since) {
+                return null;
+            }
+            return new RowsSince(rowVersion, employeeRepository.findStatesChangedSince(since),
+                    employeeRepository.findTombstoneIdsSince(since));
+        });
+        if (rows == null) {
+            return;
+        }
+
+        final List<EmployeeChangeEvent> changes = new ArrayList<>(rows.changed().size() + rows.deletedIds().size());
+        // Deletes first: a MySQL restart can hand a deleted id out again, and then the new row wins.
+        for (Long id : rows.deletedIds()) {
+            readModel.get(id).ifPresent(previous ->
+                    changes.add(new EmployeeChangeEvent(EmployeeChangeType.DELETED, rows.rowVersion(), previous, null)));
+        }
+        for (EmployeeState current : rows.changed()) {
+            final EmployeeState previous = readModel.get(current.id()).orElse(null);
+            // Rows written through this instance are in the model already.
+            if (!current.equals(previous)) {
+                final EmployeeChangeType type = previous == null ? EmployeeChangeType.CREATED : EmployeeChangeType.UPDATED;
+                changes.add(new EmployeeChangeEvent(type, rows.rowVersion(), previous, current));
+            }
+        }
+        synchronized (this) {
+            for (EmployeeChangeEvent change : changes) {
+                applyChange(change);
+            }
+        }
+        readModel.completeSync(rows.rowVersion(), !changes.isEmpty());
+        syncedRowVersion = rows.rowVersion();
+        log.debug("Hierarchy read model synced to row version {}: {} changes made through other instances",
+                rows.rowVersion(), changes.size());
+    }
+
+    private void applyChange(EmployeeChangeEvent event) {
+        if (!readModel.apply(event) || journal == null || !journalRecovered) {
+            // A superseded change is not journaled either. Until recovery the journal tail is unread; the
+            // post-recovery checkpoint includes this change.
+            return;
+        }
+        // A full journal does not need the append: the checkpoint already contains this change.
+        if (!journal.append(event) || journal.usedBytes() >= checkpointBytes) {
+            checkpoint();
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private synchronized boolean recoverFromJournal() throws IOException {
+        final Optional<ChangeJournal.Recovered> recovered = journal.recover();
+        journalRecovered = true;
+        if (recovered.isEmpty()) {
+            return false;
+        }
+        readModel.completeLoad(recovered.get().employees(), recovered.get().rowVersion());
+        // The journal only holds this instance's writes: writes made elsewhere below the highest version recovered are
+        // left to the startup reconcile, and the sync picks up from there.
+        syncedRowVersion = recovered.get().rowVersion();
+        // Compacts the replayed tail and captures changes queued while recovering.
+        checkpoint();
+        return true;
+    }
+
+    private void logFootprint() {
+        final HierarchyIndex index = readModel.getIndex();
+        final long perEmployee = index.size() == 0 ? 0 : index.structureBytes() / index.size();
+        log.info("Hierarchy index takes about {} bytes ({} per employee) plus {} bytes of names and e-mails and {} bytes "
+                        + "of recent change versions", index.structureBytes(), perEmployee, index.stringBytes(),
+                readModel.appliedVersionBytes());
+    }
+
+    private void checkpoint() {
+        try {
+            // Read first: a change applied in between lands in the rows without raising the version, so it is synced again.
+            final long rowVersion = readModel.getVersion();
+            journal.checkpoint(readModel.getAll(), rowVersion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not checkpoint the hierarchy journal.", e);
+        }
+    }
+
+    private record RowsSince(long rowVersion, List<EmployeeState> changed, List<Long> deletedIds) {
+    }
+
+}
@@ -0,0 +1,10 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+/**
+ * Number of employees with a given password strength score.
+ *
+ * @param strength password strength score, {@code 0} when unset
+ * @param count    employees with that score
+ */
+public record StrengthCount(long strength, long count) {
+}
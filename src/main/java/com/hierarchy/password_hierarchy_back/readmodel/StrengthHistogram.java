@@ -0,0 +1,165 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.models.dtos.StrengthHistogramDTO;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import com.hierarchy.password_hierarchy_back.utils.StrengthLabel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Org-wide count of employees per {@link StrengthLabel} and per score decile.
+ * <p>
+ * The counters are seeded from a grouped count of the table at startup and then move with every committed
+ * {@link EmployeeChangeEvent}, so reading them never touches the table. Writes made by other instances are never seen,
+ * so the counters are also {@linkplain #reconcile() reconciled} against the table on a fixed delay.
+ */
+@Component
+@Order(0)
+public class StrengthHistogram implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StrengthHistogram.class);
+
+    private static final StrengthLabel[] LABELS = StrengthLabel.values();
+    private static final int DECILES = 10;
+
+    private final EmployeeRepo employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long[] labelCounts = new long[LABELS.length];
+    private final long[] decileCounts = new long[DECILES];
+    private long total;
+    // Changes that arrive while a count runs; null when no count is running.
+    private List<EmployeeChangeEvent> changesWhileCounting;
+
+    @Autowired
+    public StrengthHistogram(EmployeeRepo employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reconcile();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onEmployeeChange(EmployeeChangeEvent event) {
+        apply(event);
+        if (changesWhileCounting != null) {
+            changesWhileCounting.add(event);
+        }
+    }
+
+    /**
+     * Replaces the counters with a grouped count of the table.
+     * <p>
+     * The count and a read of the change sequence run in one read-only repeatable-read transaction, so both come from
+     * the same snapshot and the count holds exactly the writes up to that row version without holding writers back.
+     * Changes that arrive while it runs are folded into the result when they are newer than that.
+     */
+    @Scheduled(initialDelayString = "${hierarchy.histogram.reconcile-interval-ms:300000}",
+            fixedDelayString = "${hierarchy.histogram.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (this) {
+            changesWhileCounting = new ArrayList<>();
+        }
+        final CountAtVersion counted;
+        try {
+            counted = transactionTemplate.execute(status ->
+                    new CountAtVersion(employeeRepository.currentRowVersion(), employeeRepository.countByStrength()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesWhileCounting = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            final long previousTotal = total;
+            clear();
+            for (StrengthCount count : counted.counts()) {
+                labelCounts[StrengthLabel.fromStrength(count.strength()).ordinal()] += count.count();
+                decileCounts[decile(count.strength())] += count.count();
+                total += count.count();
+            }
+            for (EmployeeChangeEvent event : changesWhileCounting) {
+                if (event.version() > counted.rowVersion()) {
+                    apply(event);
+                }
+            }
+            changesWhileCounting = null;
+            if (total != previousTotal) {
+                log.info("Strength histogram reconciled: {} employees, was {}", total, previousTotal);
+            }
+        }
+    }
+
+    public synchronized StrengthHistogramDTO snapshot() {
+        final Map<String, Long> labels = new LinkedHashMap<>();
+        for (StrengthLabel label : LABELS) {
+            labels.put(label.getLabel(), labelCounts[label.ordinal()]);
+        }
+        final Long[] deciles = new Long[DECILES];
+        for (int i = 0; i < DECILES; i++) {
+            deciles[i] = decileCounts[i];
+        }
+        return StrengthHistogramDTO.builder()
+                .total(total)
+                .labelCounts(labels)
+                .decileCounts(List.of(deciles))
+                .build();
+    }
+
+    private void apply(EmployeeChangeEvent event) {
+        if (event.previous() != null) {
+            add(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            add(event.current(), 1);
+        }
+    }
+
+    private void add(EmployeeState state, int delta) {
+        labelCounts[StrengthLabel.fromStrength(state.passwordStrengthValue()).ordinal()] += delta;
+        decileCounts[decile(state.passwordStrengthValue())] += delta;
+        total += delta;
+    }
+
+    private void clear() {
+        Arrays.fill(labelCounts, 0);
+        Arrays.fill(decileCounts, 0);
+        total = 0;
+    }
+
+    /**
+     * Scores run from 0 to 100; 100 shares the top decile with 90 to 99.
+     */
+    private static int decile(long strength) {
+        return (int) Math.max(0, Math.min(DECILES - 1, strength / 10));
+    }
+
+    private record CountAtVersion(long rowVersion, List<StrengthCount> counts) {
+    }
+
+}
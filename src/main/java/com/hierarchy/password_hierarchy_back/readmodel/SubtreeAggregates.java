@@ -0,0 +1,109 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.utils.StrengthLabel;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Password strength aggregates over the transitive dependents of every employee, computed in one bottom-up pass.
+ * <p>
+ * Employees are taken in the breadth-first order of a {@link HierarchyIndex} and folded into their managers in
+ * reverse, so every subtree is summed exactly once: O(n) for the whole organisation, O(1) per lookup afterwards.
+ * Employees that are not reachable from a root (a reporting cycle) keep empty aggregates.
+ */
+public class SubtreeAggregates {
+
+    private final HierarchyIndex index;
+    private final int[] dependentCount;
+    private final long[] minStrength;
+    private final long[] strengthSum;
+    private final int[] weakCount;
+
+    private SubtreeAggregates(HierarchyIndex index, int[] dependentCount, long[] minStrength, long[] strengthSum,
+                              int[] weakCount) {
+        this.index = index;
+        this.dependentCount = dependentCount;
+        this.minStrength = minStrength;
+        this.strengthSum = strengthSum;
+        this.weakCount = weakCount;
+    }
+
+    public static SubtreeAggregates compute(Collection<EmployeeState> employees, long revision) {
+        return compute(HierarchyIndex.build(employees, revision));
+    }
+
+    public static SubtreeAggregates compute(HierarchyIndex index) {
+        final int size = index.size();
+        final int[] order = index.breadthFirstOrder();
+        final int[] dependentCount = new int[size];
+        final long[] minStrength = new long[size];
+        final long[] strengthSum = new long[size];
+        final int[] weakCount = new int[size];
+        Arrays.fill(minStrength, Long.MAX_VALUE);
+
+        for (int position = order.length - 1; position >= 0; position--) {
+            final int node = order[position];
+            final int manager = index.parentOf(node);
+            if (manager < 0) {
+                continue;
+            }
+            final long strength = index.strengthAt(node);
+            dependentCount[manager] += dependentCount[node] + 1;
+            strengthSum[manager] += strengthSum[node] + strength;
+            minStrength[manager] = Math.min(minStrength[manager], Math.min(minStrength[node], strength));
+            weakCount[manager] += weakCount[node] + (StrengthLabel.fromStrength(strength) == StrengthLabel.WEEK ? 1 : 0);
+        }
+
+        return new SubtreeAggregates(index, dependentCount, minStrength, strengthSum, weakCount);
+    }
+
+    /**
+     * Read model revision the aggregates were computed from.
+     */
+    public long getRevision() {
+        return index.getRevision();
+    }
+
+    public boolean contains(long id) {
+        return index.positionOf(id) >= 0;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long idAt(int index) {
+        return this.index.idAt(index);
+    }
+
+    public int dependentCountAt(int index) {
+        return dependentCount[index];
+    }
+
+    public int dependentCount(long id) {
+        return dependentCount[index.positionOf(id)];
+    }
+
+    /**
+     * @return the weakest dependent score, or {@code null} without dependents
+     */
+    public Long minStrength(long id) {
+        final int position = index.positionOf(id);
+        return dependentCount[position] == 0 ? null : minStrength[position];
+    }
+
+    /**
+     * @return the mean dependent score, or {@code null} without dependents
+     */
+    public Double averageStrength(long id) {
+        final int position = index.positionOf(id);
+        return dependentCount[position] == 0 ? null : (double) strengthSum[position] / dependentCount[position];
+    }
+
+    public int weakCount(long id) {
+        return weakCount[index.positionOf(id)];
+    }
+
+}
@@ -1,18 +1,65 @@
 package com.hierarchy.password_hierarchy_back.repos;
 
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
 import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.StrengthCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface EmployeeRepo extends JpaRepository<Employee, Long> {
+public interface EmployeeRepo extends JpaRepository<Employee, Long>, EmployeeRepoCustom {
 
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Employee> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Employee> findByDependentIdIsNull();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Employee> findAllByIdNot(Long id);
 
     List<Employee> findByNameContaining(String name);
 
+    @Query("select new com.hierarchy.password_hierarchy_back.events.EmployeeState(" +
+            "e.id, e.name, e.email, coalesce(e.dependentId, 0L), coalesce(e.passwordStrengthValue, 0L)) from Employee e")
+    List<EmployeeState> findAllStates();
+
+    @Query("select new com.hierarchy.password_hierarchy_back.events.EmployeeState(" +
+            "e.id, e.name, e.email, coalesce(e.dependentId, 0L), coalesce(e.passwordStrengthValue, 0L)) " +
+            "from Employee e where e.id = :id")
+    Optional<EmployeeState> findStateById(@Param("id") Long id);
+
+    @Query("select new com.hierarchy.password_hierarchy_back.events.EmployeeState(" +
+            "e.id, e.name, e.email, coalesce(e.dependentId, 0L), coalesce(e.passwordStrengthValue, 0L)) " +
+            "from Employee e where e.id in :ids")
+    List<EmployeeState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Employees written through {@code EmployeeService} after {@code rowVersion}, found through the row version index.
+     */
+    @Query("select new com.hierarchy.password_hierarchy_back.events.EmployeeState(" +
+            "e.id, e.name, e.email, coalesce(e.dependentId, 0L), coalesce(e.passwordStrengthValue, 0L)) " +
+            "from Employee e where e.rowVersion > :rowVersion")
+    List<EmployeeState> findStatesChangedSince(@Param("rowVersion") long rowVersion);
+
+    /**
+     * Manager id of one employee, {@code 0} for top-level employees, without loading the entity.
+     */
+    @Query("select coalesce(e.dependentId, 0L) from Employee e where e.id = :id")
+    Optional<Long> findDependentIdById(@Param("id") Long id);
+
+    @Query("select new com.hierarchy.password_hierarchy_back.readmodel.StrengthCount(" +
+            "coalesce(e.passwordStrengthValue, 0L), count(e)) from Employee e group by coalesce(e.passwordStrengthValue, 0L)")
+    List<StrengthCount> countByStrength();
+
 }
@@ -0,0 +1,84 @@
+package com.hierarchy.password_hierarchy_back.repos;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.integrity.HierarchyLinks;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface EmployeeRepoCustom {
+
+    /**
+     * Updates only the given attributes of one employee, in a single UPDATE that loads nothing.
+     *
+     * @param id         employee id
+     * @param attributes new values keyed by {@code Employee} attribute name; a {@code null} value clears the column
+     * @return the number of updated rows
+     */
+    int updateAttributes(Long id, Map<String, Object> attributes);
+
+    /**
+     * Reads every {@code (id, dependent_id)} pair straight into primitive arrays, without loading entities.
+     */
+    HierarchyLinks findAllLinks();
+
+    /**
+     * The employee and every transitive dependent, read with one recursive query per 500 levels, so a chain deeper
+     * than MySQL's {@code cte_max_recursion_depth} still completes. Empty when the employee does not exist; a cycle in
+     * the data ends the walk instead of looping.
+     */
+    List<EmployeeState> findSubtreeStates(Long id);
+
+    /**
+     * The employee followed by its managers up to the top level, read with one recursive query per 500 levels. Empty
+     * when the employee does not exist; a cycle in the data ends the walk instead of looping.
+     */
+    List<Long> findManagerChainIds(Long id);
+
+    /**
+     * Points every given employee at {@code managerId} ({@code null} for the top level) with set-based UPDATEs, stamping
+     * the rows with {@code rowVersion}.
+     *
+     * @return the number of updated rows
+     */
+    int updateDependentIds(Collection<Long> ids, Long managerId, long rowVersion);
+
+    /**
+     * Deletes rows that together form whole subtrees with set-based statements. Their manager links are cleared first,
+     * so the self-referencing foreign key never sees a manager deleted before its dependents.
+     *
+     * @return the number of deleted rows
+     */
+    int deleteSubtreeRows(Collection<Long> ids);
+
+    /**
+     * Locks the change sequence row until the transaction ends. Every hierarchy write takes this lock before it reads
+     * the rows it is about to change, so writers queue on one row instead of locking employees in differing orders.
+     * All hierarchy writes are therefore serialized: their throughput stays flat, by design, as writers are added.
+     */
+    void lockForWrite();
+
+    /**
+     * Takes the next value of the change sequence. The counter row stays locked until the transaction ends, so writers
+     * commit their versions in order.
+     */
+    long nextRowVersion();
+
+    /**
+     * Last change sequence value handed out by a committed write.
+     */
+    long currentRowVersion();
+
+    /**
+     * Records tombstones stamped with {@code rowVersion} for employees about to be deleted, replacing older tombstones
+     * of the same ids.
+     */
+    void insertTombstones(Collection<Long> ids, long rowVersion);
+
+    /**
+     * Ids of employees deleted after {@code rowVersion}.
+     */
+    List<Long> findTombstoneIdsSince(long rowVersion);
+
+}
@@ -0,0 +1,226 @@
+package com.hierarchy.password_hierarchy_back.repos;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.integrity.HierarchyLinks;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class EmployeeRepoCustomImpl implements EmployeeRepoCustom {
+
+    // Keeps IN lists well inside every driver's parameter limit.
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    // Levels walked per recursive query, well below MySQL's default cte_max_recursion_depth of 1000. A deeper walk
+    // continues with another query from the rows on the last level.
+    static final int LEVELS_PER_QUERY = 500;
+
+    private static final String SUBTREE_STATES =
+            "WITH RECURSIVE subtree (id, hops) AS (" +
+                    "SELECT id, 0 FROM employees WHERE id IN (:ids) " +
+                    "UNION ALL " +
+                    "SELECT e.id, s.hops + 1 FROM employees e JOIN subtree s ON e.dependent_id = s.id " +
+                    "WHERE s.hops < :levels) " +
+            "SELECT e.id, e.name, e.email, e.dependent_id, e.password_strength_value, s.hops " +
+            "FROM subtree s JOIN employees e ON e.id = s.id";
+
+    private static final String MANAGER_CHAIN =
+            "WITH RECURSIVE chain (id, dependent_id, hops) AS (" +
+                    "SELECT id, dependent_id, 0 FROM employees WHERE id = :id " +
+                    "UNION ALL " +
+                    "SELECT e.id, e.dependent_id, c.hops + 1 FROM employees e JOIN chain c ON e.id = c.dependent_id " +
+                    "WHERE c.hops < :levels) " +
+            "SELECT id, hops FROM chain ORDER BY hops";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int updateAttributes(Long id, Map<String, Object> attributes) {
+        final CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        final CriteriaUpdate<Employee> update = builder.createCriteriaUpdate(Employee.class);
+        final Root<Employee> employee = update.from(Employee.class);
+
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            update.set(attribute.getKey(), attribute.getValue());
+        }
+        update.where(builder.equal(employee.get("id"), id));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public HierarchyLinks findAllLinks() {
+        long[] ids = new long[1024];
+        long[] parentIds = new long[1024];
+        int size = 0;
+
+        try (Stream<Object[]> rows = entityManager
+                .createQuery("select e.id, e.dependentId from Employee e", Object[].class)
+                .getResultStream()) {
+            for (Iterator<Object[]> iterator = rows.iterator(); iterator.hasNext(); size++) {
+                final Object[] row = iterator.next();
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    parentIds = Arrays.copyOf(parentIds, size * 2);
+                }
+                ids[size] = (Long) row[0];
+                parentIds[size] = row[1] == null ? 0 : (Long) row[1];
+            }
+        }
+        return new HierarchyLinks(Arrays.copyOf(ids, size), Arrays.copyOf(parentIds, size));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EmployeeState> findSubtreeStates(Long id) {
+        final Map<Long, EmployeeState> states = new LinkedHashMap<>();
+        List<Long> frontier = List.of(id);
+        while (!frontier.isEmpty()) {
+            final List<Long> next = new ArrayList<>();
+            for (List<Long> chunk : chunks(frontier)) {
+                final List<Object[]> rows = entityManager.createNativeQuery(SUBTREE_STATES)
+                        .setParameter("ids", chunk)
+                        .setParameter("levels", LEVELS_PER_QUERY)
+                        .getResultList();
+                for (Object[] row : rows) {
+                    final EmployeeState state = new EmployeeState(
+                            ((Number) row[0]).longValue(),
+                            (String) row[1],
+                            (String) row[2],
+                            row[3] == null ? 0 : ((Number) row[3]).longValue(),
+                            row[4] == null ? 0 : ((Number) row[4]).longValue());
+                    final int hops = ((Number) row[5]).intValue();
+                    // Only rows reached for the first time are walked further, which also ends the walk on a cycle.
+                    if (states.putIfAbsent(state.id(), state) == null && hops == LEVELS_PER_QUERY) {
+                        next.add(state.id());
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return new ArrayList<>(states.values());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findManagerChainIds(Long id) {
+        final Set<Long> chain = new LinkedHashSet<>();
+        Long next = id;
+        while (next != null) {
+            final List<Object[]> rows = entityManager.createNativeQuery(MANAGER_CHAIN)
+                    .setParameter("id", next)
+                    .setParameter("levels", LEVELS_PER_QUERY)
+                    .getResultList();
+            next = null;
+            for (Object[] row : rows) {
+                final long managerId = ((Number) row[0]).longValue();
+                if (chain.add(managerId) && ((Number) row[1]).intValue() == LEVELS_PER_QUERY) {
+                    next = managerId;
+                }
+            }
+        }
+        return List.copyOf(chain);
+    }
+
+    @Override
+    public int updateDependentIds(Collection<Long> ids, Long managerId, long rowVersion) {
+        int updated = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            updated += entityManager
+                    .createQuery("update Employee e set e.dependentId = :managerId, e.rowVersion = :rowVersion " +
+                            "where e.id in :ids")
+                    .setParameter("managerId", managerId)
+                    .setParameter("rowVersion", rowVersion)
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteSubtreeRows(Collection<Long> ids) {
+        for (List<Long> chunk : chunks(ids)) {
+            entityManager
+                    .createQuery("update Employee e set e.dependentId = null where e.id in :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            deleted += entityManager
+                    .createQuery("delete from Employee e where e.id in :ids")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+
+    @Override
+    public void lockForWrite() {
+        entityManager.createNativeQuery("SELECT version FROM employee_change_sequence WHERE id = 1 FOR UPDATE")
+                .getSingleResult();
+    }
+
+    @Override
+    public long nextRowVersion() {
+        entityManager.createNativeQuery("UPDATE employee_change_sequence SET version = version + 1 WHERE id = 1")
+                .executeUpdate();
+        return currentRowVersion();
+    }
+
+    @Override
+    public long currentRowVersion() {
+        return ((Number) entityManager.createNativeQuery("SELECT version FROM employee_change_sequence WHERE id = 1")
+                .getSingleResult()).longValue();
+    }
+
+    @Override
+    public void insertTombstones(Collection<Long> ids, long rowVersion) {
+        // A MySQL restart can hand a deleted id out again, so the id may already have a tombstone.
+        for (List<Long> chunk : chunks(ids)) {
+            entityManager.createNativeQuery("DELETE FROM employee_tombstones WHERE employee_id IN (:ids)")
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO employee_tombstones (employee_id, row_version) " +
+                            "SELECT id, :rowVersion FROM employees WHERE id IN (:ids)")
+                    .setParameter("rowVersion", rowVersion)
+                    .setParameter("ids", chunk)
+                    .executeUpdate();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findTombstoneIdsSince(long rowVersion) {
+        final List<Number> rows = entityManager
+                .createNativeQuery("SELECT employee_id FROM employee_tombstones WHERE row_version > :rowVersion")
+                .setParameter("rowVersion", rowVersion)
+                .getResultList();
+        return rows.stream().map(Number::longValue).toList();
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        final List<Long> all = List.copyOf(ids);
+        final List<List<Long>> chunks = new ArrayList<>((all.size() + IN_CHUNK_SIZE - 1) / IN_CHUNK_SIZE);
+        for (int from = 0; from < all.size(); from += IN_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(from + IN_CHUNK_SIZE, all.size())));
+        }
+        return chunks;
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.hierarchy.password_hierarchy_back.retry;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries {@link RetryOnConflict} methods that fail with a {@link ConcurrencyFailureException} (a deadlock victim, a
+ * lock wait timeout or an optimistic lock failure), a bounded number of times.
+ * <p>
+ * Runs outside the transaction advice, so every attempt gets a fresh transaction. Waits use full jitter: a random delay
+ * up to an exponentially growing cap, so writers that collided do not collide again in lockstep. Inside a caller's
+ * transaction nothing is retried, since that transaction is already marked for rollback.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    @Autowired
+    public ConflictRetryAspect(@Value("${hierarchy.write-retry.max-attempts:5}") int maxAttempts,
+                               @Value("${hierarchy.write-retry.initial-backoff-ms:10}") long initialBackoffMs,
+                               @Value("${hierarchy.write-retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffMs = Math.max(initialBackoffMs, 1);
+        this.maxBackoffMs = Math.max(maxBackoffMs, this.initialBackoffMs);
+    }
+
+    @Around("@annotation(com.hierarchy.password_hierarchy_back.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} gave up after {} attempts: {}", joinPoint.getSignature().toShortString(), attempt,
+                            e.getMessage());
+                    throw e;
+                }
+                log.debug("{} conflicted on attempt {}, retrying", joinPoint.getSignature().toShortString(), attempt);
+                Thread.sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    /**
+     * Random delay in {@code [0, min(max, initial * 2^(attempt - 1))]}.
+     */
+    long backoffMs(int attempt) {
+        final long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+}
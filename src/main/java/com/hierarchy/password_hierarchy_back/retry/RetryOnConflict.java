@@ -0,0 +1,15 @@
+package com.hierarchy.password_hierarchy_back.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional write that {@link ConflictRetryAspect} runs again, in a new transaction, when it loses a lock
+ * conflict. The method must be safe to repeat: everything it did in the failed attempt is rolled back.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
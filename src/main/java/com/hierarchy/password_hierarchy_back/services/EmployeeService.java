@@ -1,20 +1,45 @@
 package com.hierarchy.password_hierarchy_back.services;
 
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
 import com.hierarchy.password_hierarchy_back.exceptions.EmployeeNotFoundException;
+import com.hierarchy.password_hierarchy_back.jfr.DtoMappingEvent;
+import com.hierarchy.password_hierarchy_back.jfr.HierarchyLoadEvent;
 import com.hierarchy.password_hierarchy_back.models.dtos.*;
 import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
 import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import com.hierarchy.password_hierarchy_back.retry.RetryOnConflict;
+import com.hierarchy.password_hierarchy_back.timing.RequestTiming;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.hierarchy.password_hierarchy_back.models.dtos.DependentDTO.toDependents;
 import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO.fromEntity;
 import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO.toEmployees;
 import static com.hierarchy.password_hierarchy_back.models.entities.Employee.toPersist;
+import static com.hierarchy.password_hierarchy_back.timing.RequestTiming.Phase.MAPPING;
 import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.calculatePasswordStrength;
 import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.encryptPassword;
 import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
@@ -26,42 +51,104 @@ import static java.util.Objects.nonNull;
 public class EmployeeService {
 
     private final EmployeeRepo employeeRepository;
+    private final HierarchyReadModel readModel;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong hierarchyVersion = new AtomicLong();
 
     @Autowired
-    public EmployeeService(EmployeeRepo employeeRepository) {
+    public EmployeeService(EmployeeRepo employeeRepository, HierarchyReadModel readModel,
+                           ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.readModel = readModel;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
+    @RetryOnConflict
     public void createEmployee(EmployeeRequestDTO employeeRequest) {
         final long passwordStrengthValue = validatePasswordStrength(employeeRequest.getPassword());
         final Long dependentId = employeeRequest.getDependentId();
 
         final Employee employeeEntity = toPersist(employeeRequest);
 
+        // Hashing is slow, so it happens before the write lock is taken.
         final String encryptedPassword = encryptPassword(employeeRequest.getPassword());
+        employeeRepository.lockForWrite();
 
         employeeEntity.setDependentId(dependentId == 0 ? null : dependentId);
         employeeEntity.setPassword(encryptedPassword);
         employeeEntity.setPasswordStrengthValue(passwordStrengthValue);
+        final long rowVersion = employeeRepository.nextRowVersion();
+        employeeEntity.setRowVersion(rowVersion);
 
-        employeeRepository.save(employeeEntity);
+        final Employee savedEmployee = employeeRepository.save(employeeEntity);
+        publishChange(EmployeeChangeType.CREATED, rowVersion, null, EmployeeState.of(savedEmployee));
     }
 
+    /**
+     * Served from the {@link HierarchyReadModel} once it is loaded, and from the table before that. Writes made through
+     * other instances reach the read model within {@code hierarchy.read-model.sync-interval-ms}. Not transactional,
+     * so the read model path never checks out a connection; the repository calls bring their own transaction.
+     */
     public EmployeeResponseDTO getEmployeeById(Long id) {
-        final Employee employee = employeeRepository.findById(id)
-                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with id " + id));
-        return fromEntity(employee);
+        if (readModel.isReady()) {
+            final HierarchyIndex index = readModel.getIndex();
+            final int position = positionOf(index, id);
+            return map(EmployeeResponseDTO.class, 1, () -> EmployeeResponseDTO.fromIndex(index, position));
+        }
+        final Employee employee = loadTree("subtree", () -> List.of(findEmployeeById(id))).get(0);
+        return map(EmployeeResponseDTO.class, 1, () -> fromEntity(employee));
     }
 
+    /**
+     * Served like {@link #getEmployeeById(Long)}.
+     */
     public List<EmployeeResponseDTO> getAllEmployees() {
-        final List<Employee> employees = employeeRepository.findByDependentIdIsNull();
-        return employees.stream()
+        if (readModel.isReady()) {
+            final HierarchyIndex index = readModel.getIndex();
+            return map(EmployeeResponseDTO.class, index.size(), () -> {
+                final List<EmployeeResponseDTO> roots = new ArrayList<>();
+                for (int position = 0; position < index.size(); position++) {
+                    if (index.dependentIdAt(position) == 0) {
+                        roots.add(EmployeeResponseDTO.fromIndex(index, position));
+                    }
+                }
+                return roots;
+            });
+        }
+        final List<Employee> employees = loadTree("tree", employeeRepository::findByDependentIdIsNull);
+        return map(EmployeeResponseDTO.class, employees.size(), () -> employees.stream()
                 .map(EmployeeResponseDTO::fromEntity)
-                .toList();
+                .toList());
+    }
+
+    /**
+     * Top-level employees with their dependents loaded, for callers that serialize the tree themselves.
+     */
+    @Transactional(readOnly = true)
+    public List<Employee> getRootEmployees() {
+        return loadTree("tree", employeeRepository::findByDependentIdIsNull);
     }
 
+    /**
+     * Every employee but {@code id}, for the manager picker. Served like {@link #getEmployeeById(Long)}.
+     */
     public List<DependentDTO> getDependents(Long id) {
-        List<Employee> dependents;
+        if (readModel.isReady()) {
+            final HierarchyIndex index = readModel.getIndex();
+            final int excluded = isNull(id) || id == 0 ? -1 : index.positionOf(id);
+            return map(DependentDTO.class, index.size(), () -> {
+                final List<DependentDTO> dependents = new ArrayList<>(index.size());
+                for (int position = 0; position < index.size(); position++) {
+                    if (position != excluded) {
+                        dependents.add(DependentDTO.toDTO(index, position));
+                    }
+                }
+                return dependents;
+            });
+        }
+
+        final List<Employee> dependents;
 
         if (isNull(id) || id == 0) {
             dependents = employeeRepository.findAll();
@@ -69,12 +156,46 @@ public class EmployeeService {
             dependents = employeeRepository.findAllByIdNot(id);
         }
 
-        return toDependents(dependents);
+        return map(DependentDTO.class, dependents.size(), () -> toDependents(dependents));
     }
 
+    /**
+     * The managers of an employee, the direct manager first, up to the top level. Served like
+     * {@link #getEmployeeById(Long)}, with one recursive query before the read model is loaded.
+     */
+    public List<DependentDTO> getManagers(Long id) {
+        if (readModel.isReady()) {
+            final HierarchyIndex index = readModel.getIndex();
+            final int[] ancestors = index.ancestorsOf(positionOf(index, id));
+            final List<DependentDTO> managers = new ArrayList<>(ancestors.length);
+            for (int ancestor : ancestors) {
+                managers.add(DependentDTO.toDTO(index, ancestor));
+            }
+            return managers;
+        }
+
+        final List<Long> chain = employeeRepository.findManagerChainIds(id);
+        if (chain.isEmpty()) {
+            throw new EmployeeNotFoundException("Employee not found with id " + id);
+        }
+        final Map<Long, EmployeeState> states = new HashMap<>();
+        for (EmployeeState state : employeeRepository.findStatesByIdIn(chain)) {
+            states.put(state.id(), state);
+        }
+        // The recursive query does not order its rows, so the chain is followed again here.
+        final List<DependentDTO> managers = new ArrayList<>(chain.size() - 1);
+        for (EmployeeState manager = states.get(states.get(id).dependentId());
+             manager != null && manager.id() != id && managers.size() < chain.size() - 1;
+             manager = states.get(manager.dependentId())) {
+            managers.add(DependentDTO.builder().id(manager.id()).name(manager.name()).build());
+        }
+        return managers;
+    }
+
+    @Transactional(readOnly = true)
     public List<EmployeeResponseDTO> getByName(String param) {
         final List<Employee> employees = employeeRepository.findByNameContaining(param);
-        return toEmployees(employees);
+        return map(EmployeeResponseDTO.class, employees.size(), () -> toEmployees(employees));
     }
 
     public PasswordResponseDTO getScore(PasswordRequestDTO itemRequest) {
@@ -85,7 +206,15 @@ public class EmployeeService {
         return PasswordResponseDTO.builder().value(score).text(text).build();
     }
 
+    @Transactional
+    @RetryOnConflict
     public void updateEmployee(Long id, EmployeeRequestDTO employeeRequest) {
+        final String password = employeeRequest.getPassword();
+        // Hashing is slow, so it happens before the write lock is taken.
+        final long passwordStrengthValue = nonNull(password) ? validatePasswordStrength(password) : 0;
+        final String encryptedPassword = nonNull(password) ? encryptPassword(password) : null;
+        employeeRepository.lockForWrite();
+
         final Employee existingEmployee = findEmployeeById(id);
         final Set<Long> dependentIds = extractIds(existingEmployee.getDependents());
         final boolean isPresent = dependentIds.contains(employeeRequest.getDependentId());
@@ -93,12 +222,15 @@ public class EmployeeService {
         if (isPresent) {
             throw new IllegalArgumentException("The employee ID is a dependent of the current employee and cannot be assigned.");
         }
+        // The check above only sees direct dependents; a move under a deeper dependent is caught by the walk.
+        final long managerId = isNull(employeeRequest.getDependentId()) ? 0 : employeeRequest.getDependentId();
+        if (managerId != EmployeeState.of(existingEmployee).dependentId()) {
+            validateManager(id, managerId);
+        }
 
         final Employee employeeEntity = toPersist(id, employeeRequest);
 
-        if (nonNull(employeeRequest.getPassword())) {
-            final long passwordStrengthValue = validatePasswordStrength(employeeRequest.getPassword());
-            final String encryptedPassword = encryptPassword(employeeRequest.getPassword());
+        if (nonNull(password)) {
             final Long dependentId = employeeRequest.getDependentId();
 
             employeeEntity.setDependentId(dependentId == 0 ? null : dependentId);
@@ -107,25 +239,307 @@ public class EmployeeService {
         } else {
             throw new IllegalArgumentException("Password field must be present.");
         }
+        final long rowVersion = employeeRepository.nextRowVersion();
+        employeeEntity.setRowVersion(rowVersion);
 
+        // Captured before saving: the merge copies the new values onto the managed existing entity.
+        final EmployeeState previous = EmployeeState.of(existingEmployee);
         employeeRepository.save(employeeEntity);
+        publishChange(EmployeeChangeType.UPDATED, rowVersion, previous, EmployeeState.of(employeeEntity));
+    }
+
+    /**
+     * Applies only the non-null fields of {@code patch} with one targeted UPDATE; {@code dependentId} {@code 0} moves
+     * the employee to the top level. The password is hashed only when one is supplied.
+     */
+    @Transactional
+    @RetryOnConflict
+    public void patchEmployee(Long id, EmployeeRequestDTO patch) {
+        // Hashing is slow, so it happens before the write lock is taken.
+        final long newStrengthValue = nonNull(patch.getPassword()) ? validatePasswordStrength(patch.getPassword()) : 0;
+        final String encryptedPassword = nonNull(patch.getPassword()) ? encryptPassword(patch.getPassword()) : null;
+        employeeRepository.lockForWrite();
+        final EmployeeState previous = employeeRepository.findStateById(id)
+                .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with id " + id));
+        final Map<String, Object> changes = new LinkedHashMap<>();
+
+        final String name = nonNull(patch.getName()) ? patch.getName() : previous.name();
+        if (!Objects.equals(name, previous.name())) {
+            changes.put("name", name);
+        }
+
+        final String email = nonNull(patch.getEmail()) ? patch.getEmail() : previous.email();
+        if (!Objects.equals(email, previous.email())) {
+            changes.put("email", email);
+        }
+
+        final long dependentId = nonNull(patch.getDependentId()) ? patch.getDependentId() : previous.dependentId();
+        if (dependentId != previous.dependentId()) {
+            validateManager(id, dependentId);
+            changes.put("dependentId", dependentId == 0 ? null : dependentId);
+        }
+
+        long passwordStrengthValue = previous.passwordStrengthValue();
+        if (nonNull(encryptedPassword)) {
+            passwordStrengthValue = newStrengthValue;
+            changes.put("password", encryptedPassword);
+            changes.put("passwordStrengthValue", passwordStrengthValue);
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+        final long rowVersion = employeeRepository.nextRowVersion();
+        changes.put("rowVersion", rowVersion);
+
+        employeeRepository.updateAttributes(id, changes);
+        publishChange(EmployeeChangeType.UPDATED, rowVersion, previous,
+                new EmployeeState(id, name, email, dependentId, passwordStrengthValue));
     }
 
+    @Transactional
+    @RetryOnConflict
     public void deleteEmployee(Long id) {
+        employeeRepository.lockForWrite();
         final Employee existingEmployee = findEmployeeById(id);
 
         if (existingEmployee.getDependents().isEmpty()) {
+            final long rowVersion = employeeRepository.nextRowVersion();
+            employeeRepository.insertTombstones(List.of(id), rowVersion);
             employeeRepository.deleteById(id);
+            publishChange(EmployeeChangeType.DELETED, rowVersion, EmployeeState.of(existingEmployee), null);
         } else {
             throw new IllegalArgumentException("The employee has dependents and con not be deleted.");
         }
     }
 
+    /**
+     * Moves the given employees, with their subtrees, under one manager in a single set-based UPDATE; nothing is
+     * re-hashed. Rejects the move when the new manager is one of the employees or reports to one of them.
+     */
+    @Transactional
+    @RetryOnConflict
+    public BulkChangeResponseDTO reparentEmployees(ReparentRequestDTO request) {
+        if (isNull(request.getEmployeeIds()) || request.getEmployeeIds().isEmpty()
+                || request.getEmployeeIds().stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("At least one employee ID must be given.");
+        }
+        final Set<Long> ids = new LinkedHashSet<>(request.getEmployeeIds());
+        final long managerId = isNull(request.getDependentId()) ? 0 : request.getDependentId();
+        employeeRepository.lockForWrite();
+
+        final Map<Long, EmployeeState> previous = new HashMap<>();
+        for (EmployeeState state : employeeRepository.findStatesByIdIn(ids)) {
+            previous.put(state.id(), state);
+        }
+        for (Long id : ids) {
+            if (!previous.containsKey(id)) {
+                throw new EmployeeNotFoundException("Employee not found with id " + id);
+            }
+        }
+
+        if (managerId != 0) {
+            final List<Long> managerChain = employeeRepository.findManagerChainIds(managerId);
+            if (managerChain.isEmpty()) {
+                throw new EmployeeNotFoundException("Employee not found with id " + managerId);
+            }
+            for (Long ancestor : managerChain) {
+                if (ids.contains(ancestor)) {
+                    throw new IllegalArgumentException("The employee ID is a dependent of the current employee and cannot be assigned.");
+                }
+            }
+        }
+
+        final List<Long> moved = ids.stream().filter(id -> previous.get(id).dependentId() != managerId).toList();
+        if (moved.isEmpty()) {
+            return BulkChangeResponseDTO.builder().rowsChanged(0).employeeIds(List.of()).build();
+        }
+
+        final long rowVersion = employeeRepository.nextRowVersion();
+        final int rowsChanged = employeeRepository.updateDependentIds(moved, managerId == 0 ? null : managerId,
+                rowVersion);
+        for (Long id : moved) {
+            final EmployeeState state = previous.get(id);
+            publishChange(EmployeeChangeType.UPDATED, rowVersion, state,
+                    new EmployeeState(id, state.name(), state.email(), managerId, state.passwordStrengthValue()));
+        }
+        return BulkChangeResponseDTO.builder().rowsChanged(rowsChanged).employeeIds(moved).build();
+    }
+
+    /**
+     * Deletes an employee together with every transitive dependent, with set-based statements in one transaction.
+     */
+    @Transactional
+    @RetryOnConflict
+    public BulkChangeResponseDTO deleteSubtree(Long id) {
+        employeeRepository.lockForWrite();
+        final List<EmployeeState> subtree = employeeRepository.findSubtreeStates(id);
+        if (subtree.isEmpty()) {
+            throw new EmployeeNotFoundException("Employee not found with id " + id);
+        }
+
+        final List<Long> ids = subtree.stream().map(EmployeeState::id).toList();
+        final long rowVersion = employeeRepository.nextRowVersion();
+        employeeRepository.insertTombstones(ids, rowVersion);
+        final int rowsChanged = employeeRepository.deleteSubtreeRows(ids);
+
+        // Dependents go first, so views following the changes never hold an employee whose manager is gone.
+        final List<EmployeeState> leavesFirst = topDown(id, subtree);
+        Collections.reverse(leavesFirst);
+        for (EmployeeState state : leavesFirst) {
+            publishChange(EmployeeChangeType.DELETED, rowVersion, state, null);
+        }
+        return BulkChangeResponseDTO.builder().rowsChanged(rowsChanged).employeeIds(ids).build();
+    }
+
+    /**
+     * Rows written and deleted after {@code since}, for clients that keep a local copy of the hierarchy; reads only
+     * the changes through the row version indexes. Without {@code since} every row is returned.
+     * <p>
+     * The version is read first: writers hold the change sequence row until they commit, so every row up to it is
+     * already visible to the reads that follow. A write committing in between may show up again on the next poll,
+     * which is harmless since rows are applied by id.
+     */
+    @Transactional(readOnly = true)
+    public EmployeeChangesDTO getChangesSince(Long since) {
+        final long version = employeeRepository.currentRowVersion();
+        final long from = isNull(since) ? -1 : since;
+        final List<EmployeeState> changed = employeeRepository.findStatesChangedSince(from);
+        final List<Long> deletedIds = isNull(since) ? List.of() : employeeRepository.findTombstoneIdsSince(from);
+
+        return map(EmployeeChangeDTO.class, changed.size(), () -> EmployeeChangesDTO.builder()
+                .version(version)
+                .changed(changed.stream().map(EmployeeChangeDTO::toDTO).toList())
+                .deletedIds(deletedIds)
+                .build());
+    }
+
+    /**
+     * Version of the employee hierarchy, incremented by every create, update and delete made through this instance.
+     */
+    public long getHierarchyVersion() {
+        return hierarchyVersion.get();
+    }
+
+    private void publishChange(EmployeeChangeType type, long rowVersion, EmployeeState previous, EmployeeState current) {
+        hierarchyVersion.incrementAndGet();
+        eventPublisher.publishEvent(new EmployeeChangeEvent(type, rowVersion, previous, current));
+    }
+
+    /**
+     * Runs a query that returns employees with their dependents fetched, reporting it as a {@link HierarchyLoadEvent}.
+     * The trees are only walked for the node count and depth when the event is recorded.
+     */
+    private List<Employee> loadTree(String operation, Supplier<List<Employee>> query) {
+        final HierarchyLoadEvent event = new HierarchyLoadEvent();
+        event.begin();
+        final int queriesBefore = RequestTiming.currentQueries();
+        final List<Employee> roots = query.get();
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.queryCount = queriesBefore < 0 ? -1 : RequestTiming.currentQueries() - queriesBefore;
+
+            final Set<Employee> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Deque<Employee> pending = new ArrayDeque<>();
+            final Deque<Integer> levels = new ArrayDeque<>();
+            for (Employee root : roots) {
+                pending.push(root);
+                levels.push(1);
+            }
+            while (!pending.isEmpty()) {
+                final Employee employee = pending.pop();
+                final int level = levels.pop();
+                if (!visited.add(employee)) {
+                    continue;
+                }
+                event.nodeCount++;
+                event.depth = Math.max(event.depth, level);
+                if (nonNull(employee.getDependents())) {
+                    for (Employee dependent : employee.getDependents()) {
+                        pending.push(dependent);
+                        levels.push(level + 1);
+                    }
+                }
+            }
+            event.commit();
+        }
+        return roots;
+    }
+
+    /**
+     * Maps entities to DTOs, timing it as {@link RequestTiming.Phase#MAPPING} and reporting it as a {@link DtoMappingEvent}.
+     */
+    private static <T> T map(Class<?> dtoType, int entityCount, Supplier<T> mapping) {
+        final DtoMappingEvent event = new DtoMappingEvent();
+        event.begin();
+        final T result = RequestTiming.time(MAPPING, mapping);
+        if (event.shouldCommit()) {
+            event.dtoType = dtoType.getSimpleName();
+            event.entityCount = entityCount;
+            event.commit();
+        }
+        return result;
+    }
+
+    private static int positionOf(HierarchyIndex index, Long id) {
+        final int position = index.positionOf(id);
+        if (position < 0) {
+            throw new EmployeeNotFoundException("Employee not found with id " + id);
+        }
+        return position;
+    }
+
     private Employee findEmployeeById(Long id) {
         return employeeRepository.findById(id)
                 .orElseThrow(() -> new EmployeeNotFoundException("Employee not found with id " + id));
     }
 
+    /**
+     * Walks up from the new manager to the top level, rejecting a manager that is the employee or one of their
+     * transitive dependents.
+     */
+    private void validateManager(long id, long managerId) {
+        final Set<Long> visited = new HashSet<>();
+        long current = managerId;
+        while (current != 0 && visited.add(current)) {
+            if (current == id) {
+                throw new IllegalArgumentException("The employee ID is a dependent of the current employee and cannot be assigned.");
+            }
+            final Long next = employeeRepository.findDependentIdById(current).orElse(null);
+            if (isNull(next)) {
+                if (current == managerId) {
+                    throw new EmployeeNotFoundException("Employee not found with id " + managerId);
+                }
+                return;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Orders the rows of a subtree so that every manager comes before its dependents.
+     */
+    private static List<EmployeeState> topDown(long rootId, List<EmployeeState> subtree) {
+        final Map<Long, List<EmployeeState>> dependents = new HashMap<>();
+        EmployeeState root = null;
+        for (EmployeeState state : subtree) {
+            if (state.id() == rootId) {
+                root = state;
+            } else {
+                dependents.computeIfAbsent(state.dependentId(), key -> new ArrayList<>()).add(state);
+            }
+        }
+
+        final List<EmployeeState> ordered = new ArrayList<>(subtree.size());
+        ordered.add(root);
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.addAll(dependents.getOrDefault(ordered.get(i).id(), List.of()));
+        }
+        return ordered;
+    }
+
     private long validatePasswordStrength(String password) {
         final long strength = calculatePasswordStrength(password);
         if (strength < 3) {
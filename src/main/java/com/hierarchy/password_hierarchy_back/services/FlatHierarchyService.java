@@ -0,0 +1,84 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hierarchy.password_hierarchy_back.exceptions.EmployeeNotFoundException;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import com.hierarchy.password_hierarchy_back.timing.RequestTiming;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static com.hierarchy.password_hierarchy_back.models.dtos.FlatHierarchyWriter.writeColumns;
+
+/**
+ * Serves the hierarchy in the flat column format of {@link com.hierarchy.password_hierarchy_back.models.dtos.FlatHierarchyWriter},
+ * straight from the {@link HierarchyReadModel} without loading entities. The whole tree is kept serialized until the
+ * next change; subtrees are written on demand.
+ */
+@Service
+public class FlatHierarchyService {
+
+    public static final String MEDIA_TYPE = "application/vnd.hierarchy.flat+json";
+
+    private final HierarchyReadModel readModel;
+    private final EmployeeRepo employeeRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile FlatTree tree;
+
+    @Autowired
+    public FlatHierarchyService(HierarchyReadModel readModel, EmployeeRepo employeeRepository, ObjectMapper objectMapper) {
+        this.readModel = readModel;
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public byte[] getTree() {
+        if (!readModel.isReady()) {
+            final HierarchyIndex index = HierarchyIndex.build(employeeRepository.findAllStates(), -1);
+            return write(index, index.breadthFirstOrder(), 8192);
+        }
+
+        final HierarchyIndex index = readModel.getIndex();
+        final FlatTree cached = tree;
+        if (cached != null && cached.revision() == index.getRevision()) {
+            return cached.json();
+        }
+        final byte[] json = write(index, index.breadthFirstOrder(), cached == null ? 8192 : cached.json().length + 1024);
+        tree = new FlatTree(index.getRevision(), json);
+        return json;
+    }
+
+    public byte[] getSubtree(Long id) {
+        final HierarchyIndex index = readModel.isReady()
+                ? readModel.getIndex()
+                : HierarchyIndex.build(employeeRepository.findAllStates(), -1);
+        final int position = index.positionOf(id);
+        if (position < 0) {
+            throw new EmployeeNotFoundException("Employee not found with id " + id);
+        }
+        return write(index, index.subtreeOrder(position), 1024);
+    }
+
+    private byte[] write(HierarchyIndex index, int[] positions, int initialSize) {
+        final long start = RequestTiming.start();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(initialSize);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writeColumns(generator, index, positions);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize the employee hierarchy.", e);
+        }
+        RequestTiming.record(RequestTiming.Phase.SERIALIZATION, start);
+        return out.toByteArray();
+    }
+
+    private record FlatTree(long revision, byte[] json) {
+    }
+
+}
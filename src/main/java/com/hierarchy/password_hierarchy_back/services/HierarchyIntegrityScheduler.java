@@ -0,0 +1,27 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link HierarchyIntegrityService#validate()} on a schedule. Kept apart from the service so the call goes
+ * through its proxy and gets the read-only transaction, and with it the replica routing.
+ */
+@Component
+public class HierarchyIntegrityScheduler {
+
+    private final HierarchyIntegrityService hierarchyIntegrityService;
+
+    @Autowired
+    public HierarchyIntegrityScheduler(HierarchyIntegrityService hierarchyIntegrityService) {
+        this.hierarchyIntegrityService = hierarchyIntegrityService;
+    }
+
+    @Scheduled(initialDelayString = "${hierarchy.integrity.initial-delay-ms:60000}",
+            fixedDelayString = "${hierarchy.integrity.interval-ms:3600000}")
+    public void validateInBackground() {
+        hierarchyIntegrityService.validate();
+    }
+
+}
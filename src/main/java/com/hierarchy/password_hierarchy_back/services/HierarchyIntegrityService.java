@@ -0,0 +1,63 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.integrity.HierarchyLinks;
+import com.hierarchy.password_hierarchy_back.integrity.HierarchyValidator;
+import com.hierarchy.password_hierarchy_back.models.dtos.HierarchyIntegrityDTO;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Validates the whole {@code dependent_id} hierarchy with {@link HierarchyValidator}, on demand and from
+ * {@link HierarchyIntegrityScheduler}, and keeps the last report.
+ */
+@Service
+public class HierarchyIntegrityService {
+
+    private static final Logger log = LoggerFactory.getLogger(HierarchyIntegrityService.class);
+
+    private final EmployeeRepo employeeRepository;
+    private final int maxDepth;
+    private final int sampleLimit;
+
+    private volatile HierarchyIntegrityDTO lastReport;
+
+    @Autowired
+    public HierarchyIntegrityService(EmployeeRepo employeeRepository,
+                                     @Value("${hierarchy.integrity.max-depth:32}") int maxDepth,
+                                     @Value("${hierarchy.integrity.sample-limit:100}") int sampleLimit) {
+        this.employeeRepository = employeeRepository;
+        this.maxDepth = maxDepth;
+        this.sampleLimit = sampleLimit;
+    }
+
+    @Transactional(readOnly = true)
+    public HierarchyIntegrityDTO validate() {
+        final HierarchyLinks links = employeeRepository.findAllLinks();
+        final HierarchyIntegrityDTO report = HierarchyValidator.validate(links, maxDepth, sampleLimit);
+        lastReport = report;
+
+        if (!report.isValid()) {
+            log.warn("Employee hierarchy is invalid: {} cycles ({} employees, {} detached below them), {} orphans. Cycles: {}, orphans: {}",
+                    report.getCycleCount(), report.getCycleMemberCount(), report.getDetachedCount(),
+                    report.getOrphanCount(), report.getCycles(), report.getOrphans());
+        } else if (report.getDepthOutlierCount() > 0) {
+            log.info("Employee hierarchy has {} employees deeper than {} levels", report.getDepthOutlierCount(), maxDepth);
+        }
+        return report;
+    }
+
+    /**
+     * Report of the last validation, empty until one has run.
+     */
+    public Optional<HierarchyIntegrityDTO> getLastReport() {
+        return Optional.ofNullable(lastReport);
+    }
+
+}
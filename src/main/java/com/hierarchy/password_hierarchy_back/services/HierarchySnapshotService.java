@@ -0,0 +1,231 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.timing.RequestTiming;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeJsonWriter.writeEmployees;
+import static java.util.Objects.isNull;
+
+/**
+ * Keeps the serialized employee tree served by {@code GET /api/employee/employees}.
+ * <p>
+ * The tree is written by {@link com.hierarchy.password_hierarchy_back.models.dtos.EmployeeJsonWriter} from the
+ * {@link HierarchyReadModel} once it is loaded, and straight from the entities before that.
+ * <p>
+ * The snapshot is rebuilt when the {@link HierarchyReadModel#getRevision() read model revision} moves past the one it
+ * was built from. The revision also moves when the read model syncs writes made through other instances, so those
+ * show up within {@code hierarchy.read-model.sync-interval-ms}. Before the model is loaded,
+ * {@link EmployeeService#getHierarchyVersion()} only counts writes made through this instance, so the snapshot is also
+ * rebuilt once it is older than {@code hierarchy.snapshot.max-age-ms}. The ETag is derived from the JSON bytes, so every instance hands out the same tag for the same tree; it
+ * is weak because the JSON, gzip and binary bodies share it.
+ * <p>
+ * Smile and CBOR bodies are transcoded from the JSON snapshot on first request, so they never cost another database
+ * read, and are kept until the JSON changes.
+ */
+@Service
+public class HierarchySnapshotService {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final EmployeeService employeeService;
+    private final HierarchyReadModel readModel;
+    private final ObjectMapper objectMapper;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+    private final long maxAgeMillis;
+
+    private final Map<String, JsonFactory> binaryFactories = Map.of(
+            // Labels and e-mail domains repeat a lot, so let Smile back-reference repeated values too.
+            SMILE_VALUE, SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build(),
+            MediaType.APPLICATION_CBOR_VALUE, new CBORFactory());
+    private final Map<String, EncodedTree> encodedTrees = new ConcurrentHashMap<>();
+
+    private volatile HierarchySnapshot snapshot;
+
+    @Autowired
+    public HierarchySnapshotService(EmployeeService employeeService, HierarchyReadModel readModel, ObjectMapper objectMapper,
+                                    @Value("${hierarchy.snapshot.gzip-enabled:true}") boolean gzipEnabled,
+                                    @Value("${hierarchy.snapshot.gzip-min-bytes:1024}") int gzipMinBytes,
+                                    @Value("${hierarchy.snapshot.max-age-ms:5000}") long maxAgeMillis) {
+        this.employeeService = employeeService;
+        this.readModel = readModel;
+        this.objectMapper = objectMapper;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public HierarchySnapshot getSnapshot() {
+        final HierarchySnapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        synchronized (this) {
+            // Another request may have rebuilt it while this one was waiting.
+            if (isFresh(snapshot)) {
+                return snapshot;
+            }
+            snapshot = build();
+            return snapshot;
+        }
+    }
+
+    /**
+     * Returns the tree of {@code snapshot} in a binary format.
+     *
+     * @param mediaType {@link #SMILE_VALUE} or {@link MediaType#APPLICATION_CBOR_VALUE}
+     */
+    public byte[] getEncoded(HierarchySnapshot snapshot, String mediaType) {
+        final JsonFactory factory = binaryFactories.get(mediaType);
+        if (isNull(factory)) {
+            throw new IllegalArgumentException("Unsupported hierarchy format " + mediaType);
+        }
+        final EncodedTree cached = encodedTrees.get(mediaType);
+        if (cached != null && cached.etag().equals(snapshot.etag())) {
+            return cached.body();
+        }
+        final byte[] body = transcode(snapshot.json(), factory);
+        encodedTrees.put(mediaType, new EncodedTree(snapshot.etag(), body));
+        return body;
+    }
+
+    /**
+     * Drops the current snapshot, so the next request rebuilds it.
+     */
+    public void evict() {
+        snapshot = null;
+        encodedTrees.clear();
+    }
+
+    private boolean isFresh(HierarchySnapshot current) {
+        if (isNull(current) || current.version() != currentVersion()) {
+            return false;
+        }
+        // The read model revision already covers writes made elsewhere; the age limit only matters before it loads.
+        return current.version() >= 0 || maxAgeMillis <= 0 || System.currentTimeMillis() - current.builtAt() < maxAgeMillis;
+    }
+
+    /**
+     * The read model revision once it is loaded, and before that the local write count as a negative number, so a
+     * snapshot built from the entities never matches a revision.
+     */
+    private long currentVersion() {
+        return readModel.isReady() ? readModel.getRevision() : -1 - employeeService.getHierarchyVersion();
+    }
+
+    private HierarchySnapshot build() {
+        // Read the version first: a write racing with the build leaves an older tag, which only forces a rebuild.
+        final long version = currentVersion();
+        final List<Employee> employees = version >= 0 ? null : employeeService.getRootEmployees();
+
+        // Size the buffer from the previous snapshot so a rebuild does not keep regrowing it.
+        final HierarchySnapshot previous = snapshot;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(isNull(previous) ? 8192 : previous.json().length + 1024);
+        final long serializationStart = RequestTiming.start();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (isNull(employees)) {
+                writeEmployees(generator, readModel.getIndex());
+            } else {
+                writeEmployees(generator, employees);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize the employee hierarchy.", e);
+        }
+        final byte[] json = out.toByteArray();
+
+        final byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+        RequestTiming.record(RequestTiming.Phase.SERIALIZATION, serializationStart);
+        return new HierarchySnapshot(version, System.currentTimeMillis(), etag(json), json, gzip);
+    }
+
+    private byte[] transcode(byte[] json, JsonFactory factory) {
+        final long start = RequestTiming.start();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2);
+        try (JsonParser parser = objectMapper.getFactory().createParser(json);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not transcode the employee hierarchy.", e);
+        }
+        RequestTiming.record(RequestTiming.Phase.SERIALIZATION, start);
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] json) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Serialized employee tree.
+     *
+     * @param version hierarchy version the snapshot was built from
+     * @param builtAt build time in epoch millis
+     * @param etag    weak entity tag of the tree
+     * @param json    the JSON body
+     * @param gzip    the gzip-compressed JSON body, {@code null} when compression is off or not worth it
+     */
+    public record HierarchySnapshot(long version, long builtAt, String etag, byte[] json, byte[] gzip) {
+
+        public boolean hasGzip() {
+            return gzip != null;
+        }
+
+        public boolean matches(String ifNoneMatch) {
+            if (isNull(ifNoneMatch)) {
+                return false;
+            }
+            // If-None-Match uses weak comparison, so the W/ prefix is irrelevant on both sides.
+            final String opaqueTag = etag.substring(2);
+            for (String candidate : ifNoneMatch.split(",")) {
+                final String tag = candidate.trim();
+                if (tag.equals("*") || tag.equals(opaqueTag) || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record EncodedTree(String etag, byte[] body) {
+    }
+
+}
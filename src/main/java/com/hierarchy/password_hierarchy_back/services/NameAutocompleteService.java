@@ -0,0 +1,120 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.models.dtos.DependentDTO;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.readmodel.NameTrie;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Name suggestions for the "assign manager" field, served from a {@link NameTrie} instead of a {@code LIKE} scan.
+ * <p>
+ * The trie is built from the {@link HierarchyReadModel} on first use and then follows every
+ * committed {@link EmployeeChangeEvent}; it is rebuilt whenever the read model completes a full reload, which is also how writes
+ * made by other instances reach it. Lookups share a read lock, so concurrent keystrokes never wait on each other.
+ */
+@Service
+public class NameAutocompleteService {
+
+    private final HierarchyReadModel readModel;
+    private final EmployeeRepo employeeRepository;
+    private final int maxLimit;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NameTrie trie;
+    private long builtFromLoad = -1;
+
+    @Autowired
+    public NameAutocompleteService(HierarchyReadModel readModel, EmployeeRepo employeeRepository,
+                                   @Value("${hierarchy.autocomplete.max-limit:50}") int maxLimit) {
+        this.readModel = readModel;
+        this.employeeRepository = employeeRepository;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Runs once the write has committed and after the read model has applied it. Commits can reach their listeners out
+     * of order, so once the read model is ready the row is taken from there, where a superseded change is ignored.
+     */
+    @Order(1)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmployeeChange(EmployeeChangeEvent event) {
+        final long id = event.current() == null ? event.previous().id() : event.current().id();
+        lock.writeLock().lock();
+        try {
+            if (trie == null) {
+                // The first build reads the rows, this change included.
+                return;
+            }
+            final EmployeeState state = readModel.isReady() ? readModel.get(id).orElse(null) : event.current();
+            if (state == null) {
+                trie.remove(id);
+            } else {
+                trie.put(id, state.name());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} employees whose name, or a word of it, starts with {@code prefix}, ignoring case and accents.
+     */
+    public List<DependentDTO> suggest(String prefix, int limit) {
+        ensureCurrent();
+        lock.readLock().lock();
+        try {
+            final long[] ids = trie.search(prefix, Math.min(limit, maxLimit));
+            final List<DependentDTO> suggestions = new ArrayList<>(ids.length);
+            for (long id : ids) {
+                suggestions.add(DependentDTO.builder().id(id).name(trie.nameOf(id)).build());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Builds the trie ahead of the first request.
+     */
+    public void preload() {
+        ensureCurrent();
+    }
+
+    private void ensureCurrent() {
+        final long loadCount = readModel.getLoadCount();
+        lock.readLock().lock();
+        try {
+            if (trie != null && builtFromLoad == loadCount) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (trie == null || builtFromLoad != readModel.getLoadCount()) {
+                // Before the first load there is nothing to follow yet, so the table is read directly.
+                builtFromLoad = readModel.getLoadCount();
+                trie = NameTrie.build(readModel.isReady() ? readModel.getAll() : employeeRepository.findAllStates());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
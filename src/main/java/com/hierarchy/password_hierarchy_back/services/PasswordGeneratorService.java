@@ -0,0 +1,81 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.GeneratedPasswordDTO;
+import com.hierarchy.password_hierarchy_back.models.dtos.PasswordGenerateRequestDTO;
+import com.hierarchy.password_hierarchy_back.utils.BatchPasswordScorer;
+import com.hierarchy.password_hierarchy_back.utils.PasswordBatch;
+import com.hierarchy.password_hierarchy_back.utils.PasswordGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
+import static java.util.Objects.nonNull;
+
+/**
+ * Initial passwords for provisioning scripts, built by {@link PasswordGenerator} to reach the requested score on the
+ * first try. The returned scores come from the same rules as {@code /score}, computed in one batch.
+ */
+@Service
+public class PasswordGeneratorService {
+
+    private final BatchPasswordScorer scorer = new BatchPasswordScorer();
+    private final int defaultLength;
+    private final int maxCount;
+
+    @Autowired
+    public PasswordGeneratorService(@Value("${hierarchy.password-generator.default-length:16}") int defaultLength,
+                                    @Value("${hierarchy.password-generator.max-count:1000}") int maxCount) {
+        this.defaultLength = defaultLength;
+        this.maxCount = maxCount;
+    }
+
+    public List<GeneratedPasswordDTO> generate(PasswordGenerateRequestDTO request) {
+        final int count = nonNull(request.getCount()) ? request.getCount() : 1;
+        if (count < 1 || count > maxCount) {
+            throw new IllegalArgumentException("Password count must be between 1 and " + maxCount + ": " + count);
+        }
+        long minStrength = nonNull(request.getMinStrength()) ? request.getMinStrength() : 0;
+        if (nonNull(request.getLabel())) {
+            minStrength = Math.max(minStrength, request.getLabel().getMinStrength());
+        }
+        if (minStrength < 0 || minStrength > 100) {
+            throw new IllegalArgumentException("Password strength must be between 0 and 100: " + minStrength);
+        }
+
+        final int length;
+        if (nonNull(request.getLength())) {
+            length = request.getLength();
+            if (PasswordGenerator.guaranteedStrength(length) < minStrength) {
+                throw new IllegalArgumentException("Passwords of length " + length + " cannot reach strength "
+                        + minStrength + "; use at least " + PasswordGenerator.minimumLength(minStrength));
+            }
+        } else {
+            length = Math.max(defaultLength, PasswordGenerator.minimumLength(minStrength));
+        }
+
+        final PasswordBatch batch = new PasswordBatch(count, count * length);
+        for (int i = 0; i < count; i++) {
+            batch.add(PasswordGenerator.generate(length));
+        }
+        final long[] scores = scorer.score(batch);
+
+        final List<GeneratedPasswordDTO> passwords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (scores[i] < minStrength) {
+                // The generator's guarantee is derived from the scoring rules, so this only trips if they drift apart.
+                throw new IllegalStateException("Generated password scored " + scores[i] + ", below " + minStrength);
+            }
+            passwords.add(GeneratedPasswordDTO.builder()
+                    .password(batch.get(i))
+                    .passwordStrengthValue(scores[i])
+                    .passwordStrengthLabel(getLabelByStrength(scores[i]))
+                    .build());
+        }
+        return passwords;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.exceptions.EmployeeNotFoundException;
+import com.hierarchy.password_hierarchy_back.models.dtos.StrengthAggregateDTO;
+import com.hierarchy.password_hierarchy_back.models.dtos.StrengthHistogramDTO;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.readmodel.StrengthHistogram;
+import com.hierarchy.password_hierarchy_back.readmodel.SubtreeAggregates;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimum, average and weak count of password strength across each manager's transitive dependents.
+ * <p>
+ * The aggregates for the whole organisation are computed in one pass over the {@link HierarchyReadModel} and reused
+ * until the next change to it. The org-wide distribution comes from the incrementally maintained
+ * {@link StrengthHistogram}.
+ */
+@Service
+public class StrengthAggregateService {
+
+    private final HierarchyReadModel readModel;
+    private final EmployeeRepo employeeRepository;
+    private final StrengthHistogram strengthHistogram;
+
+    private volatile SubtreeAggregates aggregates;
+
+    @Autowired
+    public StrengthAggregateService(HierarchyReadModel readModel, EmployeeRepo employeeRepository,
+                                    StrengthHistogram strengthHistogram) {
+        this.readModel = readModel;
+        this.employeeRepository = employeeRepository;
+        this.strengthHistogram = strengthHistogram;
+    }
+
+    public StrengthHistogramDTO getHistogram() {
+        return strengthHistogram.snapshot();
+    }
+
+    public List<StrengthAggregateDTO> getManagerAggregates() {
+        final SubtreeAggregates current = currentAggregates();
+        final List<StrengthAggregateDTO> managers = new ArrayList<>();
+        for (int index = 0; index < current.size(); index++) {
+            if (current.dependentCountAt(index) > 0) {
+                managers.add(toDTO(current, current.idAt(index)));
+            }
+        }
+        return managers;
+    }
+
+    public StrengthAggregateDTO getAggregates(Long id) {
+        final SubtreeAggregates current = currentAggregates();
+        if (!current.contains(id)) {
+            throw new EmployeeNotFoundException("Employee not found with id " + id);
+        }
+        return toDTO(current, id);
+    }
+
+    private SubtreeAggregates currentAggregates() {
+        if (!readModel.isReady()) {
+            return SubtreeAggregates.compute(employeeRepository.findAllStates(), -1);
+        }
+
+        final HierarchyIndex index = readModel.getIndex();
+        final SubtreeAggregates cached = aggregates;
+        if (cached != null && cached.getRevision() == index.getRevision()) {
+            return cached;
+        }
+        final SubtreeAggregates computed = SubtreeAggregates.compute(index);
+        aggregates = computed;
+        return computed;
+    }
+
+    private static StrengthAggregateDTO toDTO(SubtreeAggregates aggregates, long id) {
+        return StrengthAggregateDTO.builder()
+                .employeeId(id)
+                .dependentCount(aggregates.dependentCount(id))
+                .minStrength(aggregates.minStrength(id))
+                .averageStrength(aggregates.averageStrength(id))
+                .weakCount(aggregates.weakCount(id))
+                .build();
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Counts the JDBC statements Hibernate executes for the current request. Registered for every session through
+ * {@code hibernate.session.events.auto}, which instantiates it reflectively.
+ */
+public class QueryCountListener extends BaseSessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        RequestTiming.countQuery();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        RequestTiming.countQuery();
+    }
+
+}
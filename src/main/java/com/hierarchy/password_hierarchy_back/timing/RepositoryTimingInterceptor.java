@@ -0,0 +1,21 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds the time spent in repository calls, including result mapping and EAGER fetches, to {@link RequestTiming.Phase#DB}.
+ */
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        final long start = RequestTiming.start();
+        try {
+            return invocation.proceed();
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.DB, start);
+        }
+    }
+
+}
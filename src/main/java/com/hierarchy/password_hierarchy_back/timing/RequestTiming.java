@@ -0,0 +1,133 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import java.util.function.Supplier;
+
+/**
+ * Time spent per phase while handling the current request, bound to the request thread by {@link ServerTimingFilter}.
+ * <p>
+ * The static helpers are no-ops on threads without a request, so instrumented code can call them unconditionally.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        DB("db"),
+        HASH("hash"),
+        SCORE("score"),
+        MAPPING("map"),
+        SERIALIZATION("ser");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private int queries;
+
+    private RequestTiming() {
+    }
+
+    static RequestTiming begin() {
+        final RequestTiming timing = new RequestTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return a start timestamp for {@link #record(Phase, long)}, or {@code 0} when no request is being timed
+     */
+    public static long start() {
+        return CURRENT.get() == null ? 0 : System.nanoTime();
+    }
+
+    public static void record(Phase phase, long startNanos) {
+        final RequestTiming timing = CURRENT.get();
+        if (timing != null && startNanos != 0) {
+            timing.phaseNanos[phase.ordinal()] += System.nanoTime() - startNanos;
+        }
+    }
+
+    public static <T> T time(Phase phase, Supplier<T> work) {
+        final long start = start();
+        try {
+            return work.get();
+        } finally {
+            record(phase, start);
+        }
+    }
+
+    public static void countQuery() {
+        final RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.queries++;
+        }
+    }
+
+    /**
+     * @return queries counted so far for the current request, or {@code -1} when no request is being timed
+     */
+    public static int currentQueries() {
+        final RequestTiming timing = CURRENT.get();
+        return timing == null ? -1 : timing.queries;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    public long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int queries() {
+        return queries;
+    }
+
+    /**
+     * Formats the phases that took any time, plus the total so far, as a {@code Server-Timing} header value.
+     */
+    public String toHeader() {
+        final StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            final long nanos = phaseNanos[phase.ordinal()];
+            if (nanos == 0 && !(phase == Phase.DB && queries > 0)) {
+                continue;
+            }
+            header.append(phase.getMetric());
+            if (phase == Phase.DB) {
+                header.append(";desc=\"").append(queries).append(queries == 1 ? " query\"" : " queries\"");
+            }
+            appendDuration(header, nanos).append(", ");
+        }
+        return appendDuration(header.append("total"), elapsedNanos()).toString();
+    }
+
+    private static StringBuilder appendDuration(StringBuilder header, long nanos) {
+        // Milliseconds with microsecond precision, without going through String.format.
+        final long micros = nanos / 1_000;
+        header.append(";dur=").append(micros / 1_000).append('.');
+        final long fraction = micros % 1_000;
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        return header.append(fraction);
+    }
+
+}
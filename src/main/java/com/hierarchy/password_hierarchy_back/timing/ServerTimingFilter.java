@@ -0,0 +1,109 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
+
+/**
+ * Times every request, adds the phase breakdown as a {@code Server-Timing} header and keeps the slow ones in a
+ * {@link SlowRequestLog}.
+ * <p>
+ * Headers cannot change once the response is committed, so the header is written just before the body is first
+ * opened or the response flushed; phases that end later (socket writes) only show up in the slow request log.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(SlowRequestLog slowRequestLog, long slowThresholdMillis) {
+        this.slowRequestLog = slowRequestLog;
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final RequestTiming timing = RequestTiming.begin();
+        final TimingResponse timingResponse = new TimingResponse(response, timing);
+        try {
+            chain.doFilter(request, timingResponse);
+            timingResponse.writeServerTiming();
+        } finally {
+            RequestTiming.end();
+            final long elapsed = timing.elapsedNanos();
+            if (elapsed >= slowThresholdNanos) {
+                slowRequestLog.add(new SlowRequest(Instant.now(), request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), elapsed / 1e6, timing.toHeader()));
+            }
+        }
+    }
+
+    /**
+     * Writes the header at the first point the response could be committed.
+     */
+    private static class TimingResponse extends HttpServletResponseWrapper {
+
+        private final RequestTiming timing;
+        private boolean written;
+
+        TimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void writeServerTiming() {
+            if (!written && !isCommitted()) {
+                written = true;
+                setHeader(SERVER_TIMING, timing.toHeader());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import java.time.Instant;
+
+/**
+ * One request that took longer than {@code hierarchy.timing.slow-threshold-ms}.
+ *
+ * @param finishedAt   when the response was completed
+ * @param method       HTTP method
+ * @param path         request path, without the query string
+ * @param status       response status
+ * @param totalMillis  time spent in the filter chain
+ * @param serverTiming phase breakdown, in {@code Server-Timing} header syntax
+ */
+public record SlowRequest(Instant finishedAt, String method, String path, int status, double totalMillis,
+                          String serverTiming) {
+}
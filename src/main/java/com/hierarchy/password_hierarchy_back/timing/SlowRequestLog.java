@@ -0,0 +1,36 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of the most recent slow requests; the oldest entry is overwritten once it is full.
+ */
+public class SlowRequestLog {
+
+    private final SlowRequest[] entries;
+    private int next;
+    private int size;
+
+    public SlowRequestLog(int capacity) {
+        this.entries = new SlowRequest[Math.max(1, capacity)];
+    }
+
+    public synchronized void add(SlowRequest request) {
+        entries[next] = request;
+        next = (next + 1) % entries.length;
+        size = Math.min(size + 1, entries.length);
+    }
+
+    /**
+     * @return the logged requests, newest first
+     */
+    public synchronized List<SlowRequest> recent() {
+        final List<SlowRequest> recent = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            recent.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return recent;
+    }
+
+}
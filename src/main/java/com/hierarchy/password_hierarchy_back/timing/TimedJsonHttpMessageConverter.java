@@ -0,0 +1,88 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Streams JSON responses through a {@link TimedBody}, so the time Jackson takes lands in
+ * {@link RequestTiming.Phase#SERIALIZATION} without holding the whole response in memory.
+ * <p>
+ * The response body is only opened once Jackson writes its first bytes. Responses that fit in Jackson's own buffer
+ * are therefore fully serialized before the {@code Server-Timing} header goes out; for larger ones the header carries
+ * the time up to the first flush and the rest is only in the slow request log.
+ */
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        final TimedBody body = new TimedBody(outputMessage, RequestTiming.start());
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        body.finish();
+    }
+
+    /**
+     * Opens the real body on the first write, recording the serialization time up to that point first.
+     */
+    private static final class TimedBody extends OutputStream {
+
+        private final HttpOutputMessage target;
+        private long start;
+        private OutputStream out;
+
+        TimedBody(HttpOutputMessage target, long start) {
+            this.target = target;
+            this.start = start;
+        }
+
+        private OutputStream out() throws IOException {
+            if (out == null) {
+                RequestTiming.record(RequestTiming.Phase.SERIALIZATION, start);
+                out = target.getBody();
+                start = RequestTiming.start();
+            }
+            return out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out().flush();
+        }
+
+        void finish() {
+            RequestTiming.record(RequestTiming.Phase.SERIALIZATION, start);
+        }
+    }
+
+}
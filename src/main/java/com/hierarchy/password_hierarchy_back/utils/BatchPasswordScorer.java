@@ -0,0 +1,72 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scores a {@link PasswordBatch} with the same result as calling {@link PasswordUtils#calculatePasswordStrength(String)}
+ * on every password, for offline runs over millions of candidates.
+ * <p>
+ * Uses the Vector API kernel when built with the {@code vector} Maven profile and started with
+ * {@code --add-modules jdk.incubator.vector}, and the scalar kernel otherwise. Instances are stateless and can be
+ * shared; split a batch with {@link #score(PasswordBatch, int, int, long[])} to spread it over several threads.
+ */
+public class BatchPasswordScorer {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchPasswordScorer.class);
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private final ScoringKernel kernel;
+
+    public BatchPasswordScorer() {
+        this(loadKernel());
+    }
+
+    private BatchPasswordScorer(ScoringKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public static BatchPasswordScorer scalar() {
+        return new BatchPasswordScorer(new ScalarScoringKernel());
+    }
+
+    /**
+     * Name of the kernel in use, {@code scalar} or {@code vector-<lanes>x16}.
+     */
+    public String getKernelName() {
+        return kernel.name();
+    }
+
+    public long[] score(PasswordBatch batch) {
+        final long[] scores = new long[batch.size()];
+        score(batch, 0, batch.size(), scores);
+        return scores;
+    }
+
+    /**
+     * Writes the scores of passwords {@code from} (inclusive) to {@code to} (exclusive) into the same positions of
+     * {@code scores}.
+     */
+    public void score(PasswordBatch batch, int from, int to, long[] scores) {
+        if (from < 0 || to > batch.size() || from > to || scores.length < to) {
+            throw new IllegalArgumentException("Invalid range " + from + ".." + to + " of a batch of " + batch.size());
+        }
+        kernel.score(batch.chars(), batch.offsets(), from, to, scores);
+    }
+
+    private static ScoringKernel loadKernel() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return new ScalarScoringKernel();
+        }
+        try {
+            // Loaded by name so this class still links on a JVM without the incubator module.
+            return (ScoringKernel) Class.forName(BatchPasswordScorer.class.getPackageName() + ".VectorScoringKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector scoring kernel unavailable, falling back to the scalar kernel: {}", e.toString());
+            return new ScalarScoringKernel();
+        }
+    }
+
+}
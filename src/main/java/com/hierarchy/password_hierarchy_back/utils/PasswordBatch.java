@@ -0,0 +1,62 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Many passwords packed back to back into one {@code char[]}, with {@code offsets[i]} to {@code offsets[i + 1]}
+ * delimiting password {@code i}. Scored by {@link BatchPasswordScorer} without a {@code String} or boxed
+ * {@code Character} per password.
+ */
+public final class PasswordBatch {
+
+    private char[] chars;
+    private int[] offsets;
+    private int size;
+
+    public PasswordBatch(int expectedPasswords, int expectedChars) {
+        this.chars = new char[Math.max(16, expectedChars)];
+        this.offsets = new int[Math.max(2, expectedPasswords + 1)];
+    }
+
+    public static PasswordBatch of(Collection<? extends CharSequence> passwords) {
+        final PasswordBatch batch = new PasswordBatch(passwords.size(), passwords.size() * 16);
+        for (CharSequence password : passwords) {
+            batch.add(password);
+        }
+        return batch;
+    }
+
+    public PasswordBatch add(CharSequence password) {
+        final int start = offsets[size];
+        final int end = start + password.length();
+        if (end > chars.length) {
+            chars = Arrays.copyOf(chars, Math.max(end, chars.length * 2));
+        }
+        if (size + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        for (int i = 0; i < password.length(); i++) {
+            chars[start + i] = password.charAt(i);
+        }
+        offsets[++size] = end;
+        return this;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String get(int index) {
+        return new String(chars, offsets[index], offsets[index + 1] - offsets[index]);
+    }
+
+    char[] chars() {
+        return chars;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+}
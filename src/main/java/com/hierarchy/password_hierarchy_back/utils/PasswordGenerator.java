@@ -0,0 +1,146 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.*;
+
+/**
+ * Builds random passwords that {@link PasswordUtils#calculatePasswordStrength(String)} scores at least
+ * {@link #guaranteedStrength(int)}, without scoring and discarding candidates.
+ * <p>
+ * Every password mixes upper case, lower case, digits and symbols in fixed proportions and is laid out so none of the
+ * deductions apply: no character appears twice (ignoring case), no two upper case, lower case or digit characters are
+ * adjacent, and no three characters form an ascending run. The additions then fix the score for a given length.
+ * Characters come from a per-thread {@link SecureRandomBuffer}, so concurrent callers never share a generator.
+ */
+public final class PasswordGenerator {
+
+    public static final int MIN_LENGTH = 4;
+    // Keeps every class within its alphabet with at least two characters to spare, see draw.
+    public static final int MAX_LENGTH = 32;
+
+    private static final int UPPER = 0;
+    private static final int LOWER = 1;
+    private static final int DIGIT = 2;
+    private static final int SYMBOL = 3;
+    private static final int CLASSES = 4;
+
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] SYMBOLS = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".toCharArray();
+
+    private PasswordGenerator() {
+    }
+
+    public static String generate(int length) {
+        checkLength(length);
+        final SecureRandomBuffer random = SecureRandomBuffer.current();
+        final int[] classes = layout(length, random);
+
+        // Upper and lower case draw from one pool, since "a" and "A" count as a repeat.
+        final char[] letters = LETTERS.clone();
+        final char[] digits = DIGITS.clone();
+        final char[] symbols = SYMBOLS.clone();
+        final int[] remaining = {letters.length, digits.length, symbols.length};
+
+        final char[] password = new char[length];
+        for (int position = 0; position < length; position++) {
+            switch (classes[position]) {
+                case UPPER -> password[position] = Character.toUpperCase(
+                        draw(letters, remaining, 0, password, position, random, true));
+                case LOWER -> password[position] = draw(letters, remaining, 0, password, position, random, false);
+                case DIGIT -> password[position] = draw(digits, remaining, 1, password, position, random, false);
+                default -> password[position] = draw(symbols, remaining, 2, password, position, random, false);
+            }
+        }
+        return new String(password);
+    }
+
+    /**
+     * Lowest score a password of {@code length} from {@link #generate(int)} gets, capped at 100 like the scorer.
+     */
+    public static long guaranteedStrength(int length) {
+        checkLength(length);
+        final long perClass = length / CLASSES;
+        final long symbols = perClass + length % CLASSES;
+        final long score = length * CHAR_LENGTH_SCORE
+                + (length - perClass) * UPPERCASE_BONUS
+                + (length - perClass) * LOWERCASE_BONUS
+                + perClass * DIGIT_BONUS
+                + symbols * SYMBOL_BONUS
+                // All four requirements are met; the middle digits and symbols bonus only adds to this.
+                + 2 * (CLASSES + 1);
+        return Math.min(score, 100);
+    }
+
+    /**
+     * Shortest length whose {@link #guaranteedStrength(int)} reaches {@code strength}.
+     */
+    public static int minimumLength(long strength) {
+        for (int length = MIN_LENGTH; length <= MAX_LENGTH; length++) {
+            if (guaranteedStrength(length) >= strength) {
+                return length;
+            }
+        }
+        throw new IllegalArgumentException("Password strength must be between 0 and 100: " + strength);
+    }
+
+    private static void checkLength(int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Password length must be between " + MIN_LENGTH + " and " + MAX_LENGTH + ": " + length);
+        }
+    }
+
+    /**
+     * Character classes by position: rounds of the four classes in random order, no round starting with the class the
+     * previous one ended on, then the leftover positions as symbols, which may sit next to each other.
+     */
+    private static int[] layout(int length, SecureRandomBuffer random) {
+        final int[] classes = new int[length];
+        final int[] round = {UPPER, LOWER, DIGIT, SYMBOL};
+        int size = 0;
+        for (int r = 0; r < length / CLASSES; r++) {
+            for (int i = CLASSES - 1; i > 0; i--) {
+                swap(round, i, random.nextInt(i + 1));
+            }
+            if (size > 0 && round[0] == classes[size - 1]) {
+                swap(round, 0, 1 + random.nextInt(CLASSES - 1));
+            }
+            System.arraycopy(round, 0, classes, size, CLASSES);
+            size += CLASSES;
+        }
+        while (size < length) {
+            final int at = random.nextInt(size + 1);
+            System.arraycopy(classes, at, classes, at + 1, size - at);
+            classes[at] = SYMBOL;
+            size++;
+        }
+        return classes;
+    }
+
+    /**
+     * Takes a random unused character out of {@code pool}. When it would end an ascending run of three, the next one is
+     * taken instead; the pools never run down to a single character, so there always is one.
+     */
+    private static char draw(char[] pool, int[] remaining, int slot, char[] password, int position,
+                             SecureRandomBuffer random, boolean upperCase) {
+        final int left = remaining[slot];
+        int index = random.nextInt(left);
+        if (position >= 2 && password[position - 1] == password[position - 2] + 1) {
+            final char candidate = upperCase ? Character.toUpperCase(pool[index]) : pool[index];
+            if (candidate == password[position - 1] + 1) {
+                index = (index + 1) % left;
+            }
+        }
+        final char drawn = pool[index];
+        pool[index] = pool[left - 1];
+        remaining[slot] = left - 1;
+        return drawn;
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        final int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+}
@@ -1,5 +1,8 @@
 package com.hierarchy.password_hierarchy_back.utils;
 
+import com.hierarchy.password_hierarchy_back.jfr.PasswordHashEvent;
+import com.hierarchy.password_hierarchy_back.jfr.PasswordScoreEvent;
+import com.hierarchy.password_hierarchy_back.timing.RequestTiming;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
@@ -17,22 +20,50 @@ public class PasswordUtils {
     private static final Predicate<Character> DIGIT = Character::isDigit;
     private static final Predicate<Character> SYMBOL = ch -> !Character.isLetterOrDigit(ch);
 
-    private static final int CHAR_LENGTH_SCORE = 4;
-    private static final int UPPERCASE_BONUS = 2;
-    private static final int LOWERCASE_BONUS = 2;
-    private static final int DIGIT_BONUS = 4;
-    private static final int SYMBOL_BONUS = 6;
-    private static final int REPEAT_CHAR_DEDUCTION = 2;
-    private static final int CONSECUTIVE_DEDUCTION = 2;
-    private static final int SEQUENTIAL_DEDUCTION = 3;
+    private static final int BCRYPT_STRENGTH = 10;
+
+    static final int CHAR_LENGTH_SCORE = 4;
+    static final int UPPERCASE_BONUS = 2;
+    static final int LOWERCASE_BONUS = 2;
+    static final int DIGIT_BONUS = 4;
+    static final int SYMBOL_BONUS = 6;
+    static final int REPEAT_CHAR_DEDUCTION = 2;
+    static final int CONSECUTIVE_DEDUCTION = 2;
+    static final int SEQUENTIAL_DEDUCTION = 3;
 
     public static String encryptPassword(String password) {
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        return encoder.encode(password);
+        final PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        final long start = RequestTiming.start();
+        try {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+            return encoder.encode(password);
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.HASH, start);
+            if (event.shouldCommit()) {
+                event.cost = BCRYPT_STRENGTH;
+                event.commit();
+            }
+        }
     }
 
     // Method to calculate the password strength score
     public static long calculatePasswordStrength(String password) {
+        final PasswordScoreEvent event = new PasswordScoreEvent();
+        event.begin();
+        final long start = RequestTiming.start();
+        try {
+            return scorePassword(password);
+        } finally {
+            RequestTiming.record(RequestTiming.Phase.SCORE, start);
+            if (event.shouldCommit()) {
+                event.length = password == null ? 0 : password.length();
+                event.commit();
+            }
+        }
+    }
+
+    private static long scorePassword(String password) {
         long length = password.length();
 
         final List<Character> chars = password.chars().mapToObj(c -> (char) c).collect(Collectors.toList());
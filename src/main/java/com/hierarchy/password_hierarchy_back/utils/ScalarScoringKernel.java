@@ -0,0 +1,66 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+/**
+ * One pass per password with the same {@link Character} predicates as {@link PasswordUtils}, so it is exact for any
+ * input, including letters and digits outside ASCII.
+ */
+final class ScalarScoringKernel extends ScoringKernel {
+
+    @Override
+    String name() {
+        return "scalar";
+    }
+
+    @Override
+    void score(char[] chars, int[] offsets, int from, int to, long[] scores) {
+        final char[] scratch = scratchFor(offsets, from, to);
+        for (int i = from; i < to; i++) {
+            scores[i] = scoreOne(chars, offsets[i], offsets[i + 1], scratch);
+        }
+    }
+
+    static long scoreOne(char[] chars, int start, int end, char[] scratch) {
+        long upper = 0;
+        long lower = 0;
+        long digit = 0;
+        long symbol = 0;
+        long middle = 0;
+        long pairs = 0;
+        long sequential = 0;
+
+        for (int i = start; i < end; i++) {
+            final char c = chars[i];
+            final boolean isUpper = Character.isUpperCase(c);
+            final boolean isLower = Character.isLowerCase(c);
+            final boolean isDigit = Character.isDigit(c);
+            final boolean isSymbol = !Character.isLetterOrDigit(c);
+
+            if (isUpper) upper++;
+            if (isLower) lower++;
+            if (isDigit) digit++;
+            if (isSymbol) symbol++;
+            if ((isDigit || isSymbol) && i > start && i < end - 1) {
+                middle++;
+            }
+
+            // Counted per predicate like PasswordUtils: a few characters, such as circled letters, are both an
+            // upper or lower case letter and a symbol.
+            if (i + 1 < end) {
+                final char next = chars[i + 1];
+                if (isUpper && Character.isUpperCase(next)) pairs++;
+                if (isLower && Character.isLowerCase(next)) pairs++;
+                if (isDigit && Character.isDigit(next)) pairs++;
+
+                if (i + 2 < end && next == c + 1 && chars[i + 2] == next + 1) {
+                    if (isUpper || isLower) sequential++;
+                    if (isDigit) sequential++;
+                    if (isSymbol) sequential++;
+                }
+            }
+        }
+
+        return score(end - start, upper, lower, digit, symbol, middle,
+                countRepeated(chars, start, end, scratch), pairs, sequential);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import java.util.Arrays;
+
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.*;
+
+/**
+ * Scores a range of a {@link PasswordBatch}. Kernels only differ in how they count characters; the counts are turned
+ * into a score by {@link #score}, which applies the rules of {@link PasswordUtils#calculatePasswordStrength(String)}.
+ */
+abstract class ScoringKernel {
+
+    abstract String name();
+
+    /**
+     * Writes the score of passwords {@code from} (inclusive) to {@code to} (exclusive) into {@code scores}.
+     */
+    abstract void score(char[] chars, int[] offsets, int from, int to, long[] scores);
+
+    /**
+     * @param middle     digits and symbols that are neither the first nor the last character
+     * @param repeated   distinct characters, ignoring case, that occur more than once
+     * @param pairs      adjacent positions that are both upper case, both lower case or both digits
+     * @param sequential positions starting a run of three consecutive code points
+     */
+    static long score(long length, long upper, long lower, long digit, long symbol, long middle, long repeated,
+                      long pairs, long sequential) {
+        long score = length * CHAR_LENGTH_SCORE;
+        score += upper > 0 ? (length - upper) * UPPERCASE_BONUS : 0;
+        score += lower > 0 ? (length - lower) * LOWERCASE_BONUS : 0;
+        score += digit * DIGIT_BONUS;
+        score += symbol * SYMBOL_BONUS;
+        score += middle * 2;
+
+        final int requirementsMet = (upper > 0 ? 1 : 0) + (lower > 0 ? 1 : 0) + (digit > 0 ? 1 : 0) + (symbol > 0 ? 1 : 0);
+        score += requirementsMet >= 3 ? 2L * (requirementsMet + 1) : 0;
+
+        if (upper + lower == length || digit == length) {
+            score -= length;
+        }
+        score -= repeated * REPEAT_CHAR_DEDUCTION;
+        score -= pairs * CONSECUTIVE_DEDUCTION;
+        score -= sequential * SEQUENTIAL_DEDUCTION;
+
+        return Math.max(0, Math.min(score, 100));
+    }
+
+    /**
+     * Counts distinct characters of {@code chars[start, end)}, folded to lower case, that occur more than once.
+     *
+     * @param scratch at least {@code end - start} long, overwritten
+     */
+    static long countRepeated(char[] chars, int start, int end, char[] scratch) {
+        final int length = end - start;
+        for (int i = 0; i < length; i++) {
+            scratch[i] = Character.toLowerCase(chars[start + i]);
+        }
+        Arrays.sort(scratch, 0, length);
+
+        long repeated = 0;
+        for (int i = 1; i < length; i++) {
+            if (scratch[i] == scratch[i - 1] && (i == 1 || scratch[i - 1] != scratch[i - 2])) {
+                repeated++;
+            }
+        }
+        return repeated;
+    }
+
+    static char[] scratchFor(int[] offsets, int from, int to) {
+        int longest = 0;
+        for (int i = from; i < to; i++) {
+            longest = Math.max(longest, offsets[i + 1] - offsets[i]);
+        }
+        return new char[longest];
+    }
+
+}
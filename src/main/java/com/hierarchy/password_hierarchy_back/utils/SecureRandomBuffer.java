@@ -0,0 +1,62 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Per-thread block of {@link SecureRandom} bytes, refilled a block at a time, so drawing a character costs an array
+ * read instead of a call into a generator shared with other threads.
+ * <p>
+ * Each thread gets its own DRBG instance, seeded once from the platform entropy source when the thread first draws.
+ */
+final class SecureRandomBuffer {
+
+    private static final int BUFFER_BYTES = 4096;
+    private static final ThreadLocal<SecureRandomBuffer> CURRENT = ThreadLocal.withInitial(SecureRandomBuffer::new);
+
+    private final SecureRandom random;
+    private final byte[] bytes = new byte[BUFFER_BYTES];
+    private int position;
+
+    private SecureRandomBuffer() {
+        random = newRandom();
+        random.nextBytes(bytes);
+    }
+
+    static SecureRandomBuffer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Uniform value in {@code [0, bound)} for bounds up to 256; bytes that would bias the modulo are skipped.
+     */
+    int nextInt(int bound) {
+        if (bound <= 0 || bound > 256) {
+            throw new IllegalArgumentException("Bound must be between 1 and 256: " + bound);
+        }
+        final int limit = 256 - 256 % bound;
+        int value;
+        do {
+            value = nextByte();
+        } while (value >= limit);
+        return value % bound;
+    }
+
+    private int nextByte() {
+        if (position == bytes.length) {
+            random.nextBytes(bytes);
+            position = 0;
+        }
+        return bytes[position++] & 0xFF;
+    }
+
+    private static SecureRandom newRandom() {
+        try {
+            // A DRBG instance only synchronizes on itself, unlike the default NativePRNG whose state is global.
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+}
@@ -4,25 +4,34 @@ import lombok.Getter;
 
 @Getter
 public enum StrengthLabel {
-    WEEK("Fraca"),
-    MEDIUM("Mediana"),
-    GOOD("Boa"),
-    STRONG("Forte");
+    WEEK("Fraca", 0),
+    MEDIUM("Mediana", 16),
+    GOOD("Boa", 61),
+    STRONG("Forte", 86);
 
     private final String label;
+    /**
+     * Lowest score that {@link #fromStrength(long)} maps to this label.
+     */
+    private final long minStrength;
 
-    StrengthLabel(String label) {
+    StrengthLabel(String label, long minStrength) {
         this.label = label;
+        this.minStrength = minStrength;
     }
 
     public static String getLabelByStrength(long strength) {
+        return fromStrength(strength).getLabel();
+    }
+
+    public static StrengthLabel fromStrength(long strength) {
         if (strength <= 15) {
-            return WEEK.getLabel();
+            return WEEK;
         } else if (strength <= 60) {
-            return MEDIUM.getLabel();
+            return MEDIUM;
         } else if (strength <= 85) {
-            return GOOD.getLabel();
+            return GOOD;
         }
-        return STRONG.getLabel();
+        return STRONG;
     }
 }
@@ -0,0 +1,36 @@
+package com.hierarchy.password_hierarchy_back.warmup;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code OUT_OF_SERVICE} until {@link WarmUpRunner} has finished, then {@code UP} with its duration. Part of
+ * the readiness group, so it is registered even with {@code hierarchy.warmup.enabled=false} and then reports
+ * {@code UP} straight away.
+ */
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+
+    private final WarmUpRunner warmUpRunner;
+
+    @Autowired
+    public WarmUpHealthIndicator(ObjectProvider<WarmUpRunner> warmUpRunner) {
+        this.warmUpRunner = warmUpRunner.getIfAvailable();
+    }
+
+    @Override
+    public Health health() {
+        if (warmUpRunner == null) {
+            return Health.up().withDetail("warmUp", "disabled").build();
+        }
+        final long durationMillis = warmUpRunner.getLastDurationMillis();
+        if (durationMillis < 0) {
+            return Health.outOfService().withDetail("warmUp", "running").build();
+        }
+        return Health.up().withDetail("durationMs", durationMillis).build();
+    }
+
+}
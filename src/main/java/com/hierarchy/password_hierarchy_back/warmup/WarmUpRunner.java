@@ -0,0 +1,210 @@
+package com.hierarchy.password_hierarchy_back.warmup;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.services.HierarchySnapshotService;
+import com.hierarchy.password_hierarchy_back.services.NameAutocompleteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO.toEmployees;
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.calculatePasswordStrength;
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.encryptPassword;
+
+/**
+ * Runs the hot paths on synthetic input and preloads hierarchy state before the instance reports ready.
+ * <p>
+ * Application runners finish before Spring Boot publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so
+ * {@code /actuator/health/readiness} stays {@code OUT_OF_SERVICE} until this is done. It runs last, after
+ * {@link com.hierarchy.password_hierarchy_back.readmodel.ReadModelBootstrap} has loaded the read model.
+ * <p>
+ * Each step is recorded in the {@code hierarchy.warmup} timer, tagged by step, and the total is logged.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(value = "hierarchy.warmup.enabled", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%&*";
+
+    private final DataSource dataSource;
+    private final HierarchyReadModel readModel;
+    private final HierarchySnapshotService hierarchySnapshotService;
+    private final NameAutocompleteService nameAutocompleteService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final int iterations;
+    private final int hashes;
+    private final int connections;
+
+    private volatile long lastDurationMillis = -1;
+
+    @Autowired
+    public WarmUpRunner(DataSource dataSource, HierarchyReadModel readModel,
+                        HierarchySnapshotService hierarchySnapshotService,
+                        NameAutocompleteService nameAutocompleteService, ObjectProvider<MeterRegistry> meterRegistry,
+                        @Value("${hierarchy.warmup.iterations:20000}") int iterations,
+                        @Value("${hierarchy.warmup.hashes:2}") int hashes,
+                        @Value("${hierarchy.warmup.connections:10}") int connections) {
+        this.dataSource = dataSource;
+        this.readModel = readModel;
+        this.hierarchySnapshotService = hierarchySnapshotService;
+        this.nameAutocompleteService = nameAutocompleteService;
+        this.meterRegistry = meterRegistry;
+        this.iterations = iterations;
+        this.hashes = hashes;
+        this.connections = connections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        final long start = System.nanoTime();
+
+        step("connections", this::primeConnectionPool);
+        step("scoring", this::warmUpScoring);
+        step("mapping", this::warmUpMapping);
+        step("hashing", this::warmUpHashing);
+        step("hierarchy", this::preloadHierarchy);
+
+        lastDurationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Warm-up finished in {} ms", lastDurationMillis);
+    }
+
+    /**
+     * Duration of the last warm-up in milliseconds, or {@code -1} before it has run.
+     */
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    private void step(String name, Runnable step) {
+        final long start = System.nanoTime();
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            // A failed step only leaves that path cold; it must not keep the instance from starting.
+            log.warn("Warm-up step {} failed", name, e);
+        }
+        final long nanos = System.nanoTime() - start;
+        log.debug("Warm-up step {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(nanos));
+        meterRegistry.ifAvailable(registry -> Timer.builder("hierarchy.warmup")
+                .description("Time spent warming up before reporting ready")
+                .tag("step", name)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Opens {@code connections} connections at once, so the pool creates them now rather than under the first load.
+     */
+    private void primeConnectionPool() {
+        final List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                final Connection connection = dataSource.getConnection();
+                opened.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open warm-up connections.", e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Could not close a warm-up connection", e);
+                }
+            }
+        }
+    }
+
+    private void warmUpScoring() {
+        final Random random = new Random(1);
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += calculatePasswordStrength(randomPassword(random));
+        }
+        log.trace("Warm-up scoring checksum {}", checksum);
+    }
+
+    private void warmUpMapping() {
+        final List<Employee> roots = syntheticTree();
+        long mapped = 0;
+        for (int i = 0; i < Math.max(1, iterations / 100); i++) {
+            mapped += toEmployees(roots).size();
+        }
+        log.trace("Warm-up mapped {} trees", mapped);
+    }
+
+    private void warmUpHashing() {
+        for (int i = 0; i < hashes; i++) {
+            encryptPassword("Warm#Up" + i);
+        }
+    }
+
+    private void preloadHierarchy() {
+        if (readModel.isReady()) {
+            readModel.getIndex();
+        }
+        hierarchySnapshotService.getSnapshot();
+        nameAutocompleteService.preload();
+    }
+
+    /**
+     * Ten managers with ten dependents each, so mapping recurses the way a real tree does.
+     */
+    private static List<Employee> syntheticTree() {
+        final List<Employee> roots = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < 10; i++) {
+            final Employee root = syntheticEmployee(id++, null);
+            for (int j = 0; j < 10; j++) {
+                root.getDependents().add(syntheticEmployee(id++, root.getId()));
+            }
+            roots.add(root);
+        }
+        return roots;
+    }
+
+    private static Employee syntheticEmployee(long id, Long dependentId) {
+        final Employee employee = new Employee();
+        employee.setId(id);
+        employee.setName("Warm-up " + id);
+        employee.setEmail("warmup" + id + "@example.com");
+        employee.setPasswordStrengthValue(id % 101);
+        employee.setDependentId(dependentId);
+        return employee;
+    }
+
+    private static String randomPassword(Random random) {
+        final char[] password = new char[6 + random.nextInt(18)];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(password);
+    }
+
+}
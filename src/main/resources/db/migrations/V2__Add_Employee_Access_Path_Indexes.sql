@@ -0,0 +1,3 @@
+-- findByDependentIdIsNull and the EAGER dependents fetch both filter on dependent_id.
+-- MySQL drops its implicit foreign key index once this one exists, so the access path keeps a stable name.
+CREATE INDEX idx_employees_dependent_id ON employees (dependent_id);
@@ -0,0 +1,19 @@
+-- Every write stamps the rows it touches with the next value of employee_change_sequence, so GET /changes?since=v
+-- reads only rows above v through idx_employees_row_version. Rows untouched since this migration stay at 0.
+ALTER TABLE employees ADD COLUMN row_version BIGINT NOT NULL DEFAULT 0;
+CREATE INDEX idx_employees_row_version ON employees (row_version);
+
+-- Deleted rows leave a tombstone stamped the same way, so clients learn about deletes as well.
+CREATE TABLE employee_tombstones (
+    employee_id BIGINT PRIMARY KEY,
+    row_version BIGINT NOT NULL
+);
+CREATE INDEX idx_employee_tombstones_row_version ON employee_tombstones (row_version);
+
+-- A single counter row. Taking the next version locks it until the writing transaction commits, so versions become
+-- visible in the order they were handed out and a reader never skips one that commits late.
+CREATE TABLE employee_change_sequence (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+INSERT INTO employee_change_sequence (id, version) VALUES (1, 0);
@@ -0,0 +1,94 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import static jdk.incubator.vector.VectorOperators.*;
+
+/**
+ * Classifies characters and counts pairs and runs a full vector of characters at a time with the JDK Vector API.
+ * <p>
+ * Each password is loaded three times, shifted by zero, one and two characters, so pairs and runs are lane-wise
+ * comparisons; masked loads keep every lane inside its own password. The ASCII ranges used here match the
+ * {@link Character} predicates only for ASCII, so a password with any other character is handed to
+ * {@link ScalarScoringKernel}. Only compiled with the {@code vector} Maven profile and only loaded when the
+ * {@code jdk.incubator.vector} module is present.
+ */
+final class VectorScoringKernel extends ScoringKernel {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    String name() {
+        return "vector-" + SPECIES.length() + "x16";
+    }
+
+    @Override
+    void score(char[] chars, int[] offsets, int from, int to, long[] scores) {
+        final char[] scratch = scratchFor(offsets, from, to);
+        for (int i = from; i < to; i++) {
+            scores[i] = scoreOne(chars, offsets[i], offsets[i + 1], scratch);
+        }
+    }
+
+    private static long scoreOne(char[] chars, int start, int end, char[] scratch) {
+        final int length = end - start;
+        long upper = 0;
+        long lower = 0;
+        long digit = 0;
+        long symbol = 0;
+        long digitOrSymbolBeforeLast = 0;
+        long pairs = 0;
+        long sequential = 0;
+
+        for (int i = start; i < end; i += SPECIES.length()) {
+            final VectorMask<Short> at0 = SPECIES.indexInRange(i, end);
+            final VectorMask<Short> at1 = SPECIES.indexInRange(i + 1, end);
+            final VectorMask<Short> at2 = SPECIES.indexInRange(i + 2, end);
+            final ShortVector c0 = ShortVector.fromCharArray(SPECIES, chars, i, at0);
+            final ShortVector c1 = ShortVector.fromCharArray(SPECIES, chars, i + 1, at1);
+            final ShortVector c2 = ShortVector.fromCharArray(SPECIES, chars, i + 2, at2);
+
+            if (c0.lanewise(AND, (short) 0xFF80).compare(NE, (short) 0).anyTrue()) {
+                return ScalarScoringKernel.scoreOne(chars, start, end, scratch);
+            }
+
+            final VectorMask<Short> upper0 = between(c0, 'A', 'Z');
+            final VectorMask<Short> lower0 = between(c0, 'a', 'z');
+            final VectorMask<Short> digit0 = between(c0, '0', '9');
+            final VectorMask<Short> symbol0 = at0.andNot(upper0.or(lower0).or(digit0));
+
+            upper += upper0.trueCount();
+            lower += lower0.trueCount();
+            digit += digit0.trueCount();
+            symbol += symbol0.trueCount();
+            digitOrSymbolBeforeLast += digit0.or(symbol0).and(SPECIES.indexInRange(i, end - 1)).trueCount();
+
+            // Lanes past the end of the password load as zero, which is in none of the ranges.
+            pairs += upper0.and(between(c1, 'A', 'Z'))
+                    .or(lower0.and(between(c1, 'a', 'z')))
+                    .or(digit0.and(between(c1, '0', '9')))
+                    .trueCount();
+            sequential += c1.sub(c0).compare(EQ, (short) 1)
+                    .and(c2.sub(c1).compare(EQ, (short) 1))
+                    .and(at2)
+                    .trueCount();
+        }
+
+        long middle = 0;
+        if (length > 2) {
+            final char first = chars[start];
+            final boolean firstIsDigitOrSymbol = !(first >= 'A' && first <= 'Z' || first >= 'a' && first <= 'z');
+            middle = digitOrSymbolBeforeLast - (firstIsDigitOrSymbol ? 1 : 0);
+        }
+
+        return score(length, upper, lower, digit, symbol, middle, countRepeated(chars, start, end, scratch),
+                pairs, sequential);
+    }
+
+    private static VectorMask<Short> between(ShortVector chars, char low, char high) {
+        return chars.compare(GE, (short) low).and(chars.compare(LE, (short) high));
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.EmployeeRequestDTO;
+import com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import com.hierarchy.password_hierarchy_back.services.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes through {@link EmployeeService} against the embedded database with the second-level cache enabled, checking
+ * that repeated entity reads are served from the cache and that writes never leave a manager's dependents stale.
+ * The service answers tree reads from the read model, so the entities are read through the repository here.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class DependentsCacheEvictionTest {
+
+    private static final String PASSWORD = "Str0ng#Passw0rd";
+    private static final String EMAIL = "cache@example.com";
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepo employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        // The embedded database outlives this context, so the committed rows are removed for the other tests.
+        jdbcTemplate.update("UPDATE employees SET dependent_id = NULL WHERE email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM employees WHERE email = ?", EMAIL);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    void getEmployeeById_ShouldBeServedFromCacheOnRepeat() {
+        final long managerId = create("Manager", 0L);
+        load(managerId);
+
+        final Statistics statistics = statistics();
+        final long hitsBefore = statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMPLOYEE_REGION).getHitCount();
+        load(managerId);
+
+        assertTrue(statistics.getDomainDataRegionStatistics(HibernateCacheConfig.EMPLOYEE_REGION).getHitCount() > hitsBefore);
+    }
+
+    @Test
+    void statistics_ShouldBePublishedAsMetrics() {
+        final long managerId = create("Manager", 0L);
+        load(managerId);
+        load(managerId);
+
+        assertFalse(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").functionCounters().isEmpty());
+        assertTrue(meterRegistry.find("hibernate.sessions.open").functionCounter().count() > 0);
+    }
+
+    @Test
+    void createEmployee_ShouldRefreshCachedDependents() {
+        final long managerId = create("Manager", 0L);
+        create("First", managerId);
+        assertEquals(1, load(managerId).getDependents().size());
+
+        create("Second", managerId);
+
+        assertEquals(2, load(managerId).getDependents().size());
+    }
+
+    @Test
+    void updateEmployee_ShouldRefreshBothManagers() {
+        final long firstManagerId = create("First manager", 0L);
+        final long secondManagerId = create("Second manager", 0L);
+        final String name = unique("Moving");
+        final long employeeId = create(name, firstManagerId);
+        assertEquals(1, load(firstManagerId).getDependents().size());
+        assertEquals(0, load(secondManagerId).getDependents().size());
+
+        employeeService.updateEmployee(employeeId, request(name, secondManagerId));
+
+        assertEquals(0, load(firstManagerId).getDependents().size());
+        final EmployeeResponseDTO secondManager = load(secondManagerId);
+        assertEquals(1, secondManager.getDependents().size());
+        assertEquals(employeeId, secondManager.getDependents().get(0).getId());
+    }
+
+    @Test
+    void patchEmployee_ShouldRefreshBothManagers() {
+        final long firstManagerId = create("First manager", 0L);
+        final long secondManagerId = create("Second manager", 0L);
+        final long employeeId = create("Moving", firstManagerId);
+        assertEquals(1, load(firstManagerId).getDependents().size());
+        assertEquals(0, load(secondManagerId).getDependents().size());
+
+        employeeService.patchEmployee(employeeId, EmployeeRequestDTO.builder().dependentId(secondManagerId).build());
+
+        assertEquals(0, load(firstManagerId).getDependents().size());
+        assertEquals(1, load(secondManagerId).getDependents().size());
+        assertEquals(secondManagerId, load(employeeId).getDependentId());
+    }
+
+    @Test
+    void deleteEmployee_ShouldRefreshCachedDependents() {
+        final long managerId = create("Manager", 0L);
+        final long employeeId = create("Leaving", managerId);
+        assertEquals(1, load(managerId).getDependents().size());
+
+        employeeService.deleteEmployee(employeeId);
+
+        assertEquals(0, load(managerId).getDependents().size());
+    }
+
+    private long create(String name, long dependentId) {
+        final String uniqueName = name.contains("#") ? name : unique(name);
+        employeeService.createEmployee(request(uniqueName, dependentId));
+        return employeeRepository.findByNameContaining(uniqueName).get(0).getId();
+    }
+
+    private EmployeeResponseDTO load(long id) {
+        return EmployeeResponseDTO.fromEntity(employeeRepository.findById(id).orElseThrow());
+    }
+
+    private static EmployeeRequestDTO request(String name, long dependentId) {
+        return EmployeeRequestDTO.builder()
+                .name(name)
+                .email(EMAIL)
+                .password(PASSWORD)
+                .dependentId(dependentId)
+                .build();
+    }
+
+    private static String unique(String name) {
+        return name + " #" + UUID.randomUUID();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.hierarchy.password_hierarchy_back.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routes between two separate in-memory databases, each of which knows its own name.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        setUp(60_000);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        assertEquals("primary", readWrite.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void withoutTransaction_ShouldUsePrimary() {
+        assertEquals("primary", currentDatabase());
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUsePrimaryWithinReadYourWritesWindow() {
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET writes = writes + 1"));
+
+        assertEquals("primary", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReturnToReplicaAfterWindow() {
+        setUp(0);
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET writes = writes + 1"));
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    void rolledBackTransaction_ShouldNotOpenReadYourWritesWindow() {
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE marker SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica", readOnly.execute(status -> currentDatabase()));
+    }
+
+    private void setUp(long readYourWritesMillis) {
+        final DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(
+                database("primary"), database("replica"), readYourWritesMillis));
+        final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private static DataSource database(String name) {
+        final DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(20), writes INT)");
+        jdbcTemplate.execute("DELETE FROM marker");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+}
@@ -1,22 +1,40 @@
 package com.hierarchy.password_hierarchy_back.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.hierarchy.password_hierarchy_back.config.BinaryFormatsConfig;
 import com.hierarchy.password_hierarchy_back.models.dtos.*;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
 import com.hierarchy.password_hierarchy_back.services.EmployeeService;
+import com.hierarchy.password_hierarchy_back.services.FlatHierarchyService;
+import com.hierarchy.password_hierarchy_back.services.HierarchySnapshotService;
+import com.hierarchy.password_hierarchy_back.services.NameAutocompleteService;
+import com.hierarchy.password_hierarchy_back.services.PasswordGeneratorService;
+import com.hierarchy.password_hierarchy_back.services.StrengthAggregateService;
+import com.hierarchy.password_hierarchy_back.utils.StrengthLabel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -24,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @ActiveProfiles("test")
 @WebMvcTest(EmployeeController.class)
+@Import({HierarchySnapshotService.class, BinaryFormatsConfig.class})
 public class EmployeeControllerTest {
 
     private static final Long EMPLOYEE_ID = 1L;
@@ -36,12 +55,31 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private StrengthAggregateService strengthAggregateService;
+
+    @MockBean
+    private FlatHierarchyService flatHierarchyService;
+
+    @MockBean
+    private NameAutocompleteService nameAutocompleteService;
+
+    @MockBean
+    private PasswordGeneratorService passwordGeneratorService;
+
+    @MockBean
+    private HierarchyReadModel readModel;
+
+    @Autowired
+    private HierarchySnapshotService hierarchySnapshotService;
+
     private EmployeeResponseDTO employeeResponseDTO;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         employeeResponseDTO = createMockEmployeeDTO();
+        hierarchySnapshotService.evict();
     }
 
     @Test
@@ -75,23 +113,80 @@ public class EmployeeControllerTest {
     @Test
     @WithMockUser
     void testGetAllEmployees() throws Exception {
-        EmployeeResponseDTO employeeResponseDTO1 = new EmployeeResponseDTO();
-        employeeResponseDTO1.setId(2L);
-        employeeResponseDTO1.setName("Jane Doe");
-        employeeResponseDTO1.setEmail("janedoe@example.com");
-        employeeResponseDTO1.setPassword("password65432");
-        employeeResponseDTO1.setPasswordStrengthValue(80L);
+        Employee employee1 = new Employee();
+        employee1.setId(2L);
+        employee1.setName("Jane Doe");
+        employee1.setEmail("janedoe@example.com");
+        employee1.setPassword("password65432");
+        employee1.setPasswordStrengthValue(80L);
 
-        List<EmployeeResponseDTO> employeeList = Arrays.asList(employeeResponseDTO, employeeResponseDTO1);
-        when(employeeService.getAllEmployees()).thenReturn(employeeList);
+        List<Employee> employeeList = Arrays.asList(createMockEmployee(), employee1);
+        when(employeeService.getRootEmployees()).thenReturn(employeeList);
 
         mockMvc.perform(get("/api/employee/employees"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$[0].name").value(EMPLOYEE_NAME))
-                .andExpect(jsonPath("$[1].name").value("Jane Doe"));
+                .andExpect(jsonPath("$[1].name").value("Jane Doe"))
+                .andExpect(jsonPath("$[1].passwordStrengthLabel").value("Boa"));
+
+        verify(employeeService, times(1)).getRootEmployees();
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllEmployees_ShouldReturnNotModified_WhenETagMatches() throws Exception {
+        when(employeeService.getRootEmployees()).thenReturn(List.of(createMockEmployee()));
+
+        MvcResult result = mockMvc.perform(get("/api/employee/employees"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/employee/employees").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+
+        // The second request is answered from the snapshot without rebuilding the tree.
+        verify(employeeService, times(1)).getRootEmployees();
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllEmployees_ShouldGzipOnlyWhenAcceptEncodingAllowsIt() throws Exception {
+        final List<Employee> employees = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            final Employee employee = createMockEmployee();
+            employee.setId(id);
+            employees.add(employee);
+        }
+        when(employeeService.getRootEmployees()).thenReturn(employees);
+
+        for (String accepted : List.of("gzip", "deflate, GZIP;q=0.5", "x-gzip", "*", "br;q=1.0, *;q=0.1")) {
+            mockMvc.perform(get("/api/employee/employees").header(HttpHeaders.ACCEPT_ENCODING, accepted))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+        for (String refused : List.of("gzip;q=0", "gzip; q=0.0, deflate", "identity", "notgzip", "gzip;q=0, *", "*;q=0")) {
+            mockMvc.perform(get("/api/employee/employees").header(HttpHeaders.ACCEPT_ENCODING, refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(jsonPath("$[0].name").value(EMPLOYEE_NAME));
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllEmployees_ShouldRebuildSnapshot_WhenHierarchyVersionChanges() throws Exception {
+        when(employeeService.getRootEmployees()).thenReturn(List.of(createMockEmployee()));
+
+        mockMvc.perform(get("/api/employee/employees")).andExpect(status().isOk());
+        when(employeeService.getHierarchyVersion()).thenReturn(1L);
+        mockMvc.perform(get("/api/employee/employees")).andExpect(status().isOk());
 
-        verify(employeeService, times(1)).getAllEmployees();
+        verify(employeeService, times(2)).getRootEmployees();
     }
 
     @Test
@@ -108,6 +203,59 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getByName(EMPLOYEE_NAME);
     }
 
+    @Test
+    @WithMockUser
+    void testGetNameSuggestions() throws Exception {
+        when(nameAutocompleteService.suggest("jo", 5))
+                .thenReturn(List.of(DependentDTO.builder().id(EMPLOYEE_ID).name(EMPLOYEE_NAME).build()));
+
+        mockMvc.perform(get("/api/employee/name/suggestions")
+                        .param("prefix", "jo")
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(EMPLOYEE_ID))
+                .andExpect(jsonPath("$[0].name").value(EMPLOYEE_NAME));
+
+        verify(nameAutocompleteService, times(1)).suggest("jo", 5);
+        verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetChanges() throws Exception {
+        EmployeeChangesDTO changes = EmployeeChangesDTO.builder()
+                .version(12L)
+                .changed(List.of(EmployeeChangeDTO.builder().id(EMPLOYEE_ID).name(EMPLOYEE_NAME).dependentId(0L).build()))
+                .deletedIds(List.of(4L))
+                .build();
+        when(employeeService.getChangesSince(10L)).thenReturn(changes);
+
+        mockMvc.perform(get("/api/employee/changes").param("since", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.version").value(12L))
+                .andExpect(jsonPath("$.changed[0].name").value(EMPLOYEE_NAME))
+                .andExpect(jsonPath("$.deletedIds[0]").value(4L));
+
+        verify(employeeService, times(1)).getChangesSince(10L);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetManagers() throws Exception {
+        when(employeeService.getManagers(EMPLOYEE_ID))
+                .thenReturn(List.of(DependentDTO.builder().id(2L).name("Jane Doe").build()));
+
+        mockMvc.perform(get("/api/employee/{id}/managers", EMPLOYEE_ID))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(2L))
+                .andExpect(jsonPath("$[0].name").value("Jane Doe"));
+
+        verify(employeeService, times(1)).getManagers(EMPLOYEE_ID);
+    }
+
     @Test
     @WithMockUser
     void testGetDependents() throws Exception {
@@ -126,6 +274,106 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getDependents(EMPLOYEE_ID);
     }
 
+    @Test
+    @WithMockUser
+    void testGetStrengthAggregates() throws Exception {
+        StrengthAggregateDTO aggregate = StrengthAggregateDTO.builder()
+                .employeeId(EMPLOYEE_ID).dependentCount(3).minStrength(10L).averageStrength(42.5).weakCount(1).build();
+        when(strengthAggregateService.getAggregates(EMPLOYEE_ID)).thenReturn(aggregate);
+
+        mockMvc.perform(get("/api/employee/{id}/strength/aggregates", EMPLOYEE_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dependentCount").value(3))
+                .andExpect(jsonPath("$.minStrength").value(10))
+                .andExpect(jsonPath("$.averageStrength").value(42.5))
+                .andExpect(jsonPath("$.weakCount").value(1));
+
+        verify(strengthAggregateService, times(1)).getAggregates(EMPLOYEE_ID);
+    }
+
+    @Test
+    @WithMockUser
+    void testGetStrengthHistogram() throws Exception {
+        StrengthHistogramDTO histogram = StrengthHistogramDTO.builder()
+                .total(3L)
+                .labelCounts(Map.of("Fraca", 1L, "Forte", 2L))
+                .decileCounts(List.of(0L, 1L, 0L, 0L, 0L, 0L, 0L, 0L, 0L, 2L))
+                .build();
+        when(strengthAggregateService.getHistogram()).thenReturn(histogram);
+
+        mockMvc.perform(get("/api/employee/strength/histogram"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.labelCounts.Forte").value(2))
+                .andExpect(jsonPath("$.decileCounts[9]").value(2));
+
+        verify(strengthAggregateService, times(1)).getHistogram();
+    }
+
+    @Test
+    @WithMockUser
+    void testPatchEmployee() throws Exception {
+        doNothing().when(employeeService).patchEmployee(eq(EMPLOYEE_ID), any(EmployeeRequestDTO.class));
+
+        mockMvc.perform(patch("/api/employee/{id}", EMPLOYEE_ID)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"dependentId\": 2 }"))
+                .andExpect(status().isNoContent());
+
+        verify(employeeService, times(1)).patchEmployee(eq(EMPLOYEE_ID), any(EmployeeRequestDTO.class));
+    }
+
+    @Test
+    @WithMockUser
+    void testGetAllEmployees_ShouldServeSmileAndCbor() throws Exception {
+        when(employeeService.getRootEmployees()).thenReturn(List.of(createMockEmployee()));
+        ObjectMapper json = new ObjectMapper();
+
+        byte[] jsonBody = mockMvc.perform(get("/api/employee/employees"))
+                .andReturn().getResponse().getContentAsByteArray();
+        MvcResult smile = mockMvc.perform(get("/api/employee/employees").accept(HierarchySnapshotService.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(HierarchySnapshotService.SMILE_VALUE))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/employee/employees").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        assertEquals(json.readTree(jsonBody),
+                new ObjectMapper(new SmileFactory()).readTree(smile.getResponse().getContentAsByteArray()));
+        assertEquals(json.readTree(jsonBody),
+                new ObjectMapper(new CBORFactory()).readTree(cbor.getResponse().getContentAsByteArray()));
+        assertEquals(smile.getResponse().getHeader(HttpHeaders.ETAG), cbor.getResponse().getHeader(HttpHeaders.ETAG));
+        verify(employeeService, times(1)).getRootEmployees();
+    }
+
+    @Test
+    @WithMockUser
+    void testGetScore_ShouldAcceptCborAndAnswerSmile() throws Exception {
+        PasswordResponseDTO passwordResponseDTO = new PasswordResponseDTO();
+        passwordResponseDTO.setValue(75L);
+        passwordResponseDTO.setText("Boa");
+        when(employeeService.getScore(any(PasswordRequestDTO.class))).thenReturn(passwordResponseDTO);
+
+        byte[] request = new ObjectMapper(new CBORFactory()).writeValueAsBytes(Map.of("item", "password123"));
+
+        MvcResult result = mockMvc.perform(post("/api/employee/score")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(HierarchySnapshotService.SMILE_VALUE)
+                        .content(request))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(HierarchySnapshotService.SMILE_VALUE))
+                .andReturn();
+
+        PasswordResponseDTO response = new ObjectMapper(new SmileFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), PasswordResponseDTO.class);
+        assertEquals(75L, response.getValue());
+        verify(employeeService).getScore(argThat(dto -> "password123".equals(dto.getItem())));
+    }
+
     @Test
     @WithMockUser
     void testGetScore() throws Exception {
@@ -146,6 +394,28 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).getScore(any(PasswordRequestDTO.class));
     }
 
+    @Test
+    @WithMockUser
+    void testGeneratePasswords() throws Exception {
+        final GeneratedPasswordDTO generated = GeneratedPasswordDTO.builder()
+                .password("k7#Qd!2mZ")
+                .passwordStrengthValue(100)
+                .passwordStrengthLabel("Forte")
+                .build();
+
+        when(passwordGeneratorService.generate(argThat(request -> request.getCount() == 1
+                && request.getLabel() == StrengthLabel.STRONG))).thenReturn(List.of(generated));
+
+        mockMvc.perform(post("/api/employee/password/generate")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"count\": 1, \"label\": \"STRONG\" }"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].password").value("k7#Qd!2mZ"))
+                .andExpect(jsonPath("$[0].passwordStrengthValue").value(100))
+                .andExpect(jsonPath("$[0].passwordStrengthLabel").value("Forte"));
+    }
+
     @Test
     @WithMockUser
     void testUpdateEmployee() throws Exception {
@@ -174,6 +444,81 @@ public class EmployeeControllerTest {
         verify(employeeService, times(1)).deleteEmployee(EMPLOYEE_ID);
     }
 
+    @Test
+    @WithMockUser
+    void testReparentEmployees() throws Exception {
+        when(employeeService.reparentEmployees(any(ReparentRequestDTO.class)))
+                .thenReturn(BulkChangeResponseDTO.builder().rowsChanged(2).employeeIds(List.of(2L, 3L)).build());
+
+        mockMvc.perform(post("/api/employee/reparent")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"employeeIds\":[2,3],\"dependentId\":1}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsChanged").value(2))
+                .andExpect(jsonPath("$.employeeIds[1]").value(3));
+
+        verify(employeeService, times(1)).reparentEmployees(argThat(request ->
+                request.getEmployeeIds().equals(List.of(2L, 3L)) && request.getDependentId() == 1L));
+    }
+
+    @Test
+    @WithMockUser
+    void testDeleteSubtree() throws Exception {
+        when(employeeService.deleteSubtree(EMPLOYEE_ID))
+                .thenReturn(BulkChangeResponseDTO.builder().rowsChanged(3).employeeIds(List.of(1L, 2L, 3L)).build());
+
+        mockMvc.perform(delete("/api/employee/{id}/subtree", EMPLOYEE_ID)
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rowsChanged").value(3));
+
+        verify(employeeService, times(1)).deleteSubtree(EMPLOYEE_ID);
+        verify(employeeService, never()).deleteEmployee(any());
+    }
+
+    @Test
+    @WithMockUser
+    void testGetEmployees_FlatFormat() throws Exception {
+        byte[] flat = "{\"id\":[1],\"parentId\":[0]}".getBytes();
+        when(flatHierarchyService.getTree()).thenReturn(flat);
+
+        mockMvc.perform(get("/api/employee/employees").param("format", "flat"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(FlatHierarchyService.MEDIA_TYPE))
+                .andExpect(jsonPath("$.id[0]").value(1));
+
+        mockMvc.perform(get("/api/employee/employees").accept(FlatHierarchyService.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(flat));
+
+        verify(flatHierarchyService, times(2)).getTree();
+        verify(employeeService, never()).getRootEmployees();
+    }
+
+    @Test
+    @WithMockUser
+    void testGetEmployeeById_FlatFormat() throws Exception {
+        when(flatHierarchyService.getSubtree(EMPLOYEE_ID)).thenReturn("{\"id\":[1]}".getBytes());
+
+        mockMvc.perform(get("/api/employee/{id}", EMPLOYEE_ID).param("format", "flat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id[0]").value(1));
+
+        verify(flatHierarchyService, times(1)).getSubtree(EMPLOYEE_ID);
+        verify(employeeService, never()).getEmployeeById(EMPLOYEE_ID);
+    }
+
+    public static Employee createMockEmployee() {
+        Employee employee = new Employee();
+        employee.setId(1L);
+        employee.setName("John Doe");
+        employee.setEmail("john.doe@example.com");
+        employee.setPassword("password123");
+        employee.setPasswordStrengthValue(75L);
+        return employee;
+    }
+
     public static EmployeeResponseDTO createMockEmployeeDTO() {
         EmployeeResponseDTO employeeResponseDTO = new EmployeeResponseDTO();
         employeeResponseDTO.setId(1L);
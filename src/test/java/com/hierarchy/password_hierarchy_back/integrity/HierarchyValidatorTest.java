@@ -0,0 +1,110 @@
+package com.hierarchy.password_hierarchy_back.integrity;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.HierarchyIntegrityDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchyValidatorTest {
+
+    @Test
+    void validate_ShouldAcceptTree() {
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(links(
+                1, 0,
+                2, 1,
+                3, 2,
+                4, 1,
+                5, 0), 32, 100);
+
+        assertTrue(report.isValid());
+        assertEquals(5, report.getEmployeeCount());
+        assertEquals(2, report.getRootCount());
+        assertEquals(3, report.getMaxDepth());
+        assertEquals(0, report.getCycleCount());
+        assertEquals(0, report.getOrphanCount());
+    }
+
+    @Test
+    void validate_ShouldFindMultiLevelCycleAndWhatHangsBelowIt() {
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(links(
+                1, 0,
+                2, 4,
+                3, 2,
+                4, 3,
+                5, 3,
+                6, 5), 32, 100);
+
+        assertFalse(report.isValid());
+        assertEquals(1, report.getCycleCount());
+        assertEquals(3, report.getCycleMemberCount());
+        assertEquals(List.of(2L, 3L, 4L), report.getCycles().get(0).stream().sorted().toList());
+        assertEquals(2, report.getDetachedCount());
+        assertEquals(1, report.getMaxDepth());
+    }
+
+    @Test
+    void validate_ShouldFindSelfReference() {
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(links(1, 0, 2, 2), 32, 100);
+
+        assertEquals(1, report.getCycleCount());
+        assertEquals(List.of(List.of(2L)), report.getCycles());
+    }
+
+    @Test
+    void validate_ShouldFindOrphans() {
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(links(
+                1, 0,
+                2, 99,
+                3, 2), 32, 100);
+
+        assertFalse(report.isValid());
+        assertEquals(1, report.getOrphanCount());
+        assertEquals(List.of(2L), report.getOrphans());
+        assertEquals(0, report.getCycleCount());
+    }
+
+    @Test
+    void validate_ShouldReportDepthOutliersWithoutFailing() {
+        long[] ids = new long[50];
+        long[] parentIds = new long[50];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+            parentIds[i] = i;
+        }
+
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(new HierarchyLinks(ids, parentIds), 40, 5);
+
+        assertTrue(report.isValid());
+        assertEquals(50, report.getMaxDepth());
+        assertEquals(10, report.getDepthOutlierCount());
+        assertEquals(5, report.getDepthOutliers().size());
+    }
+
+    @Test
+    void validate_ShouldCapSamples() {
+        long[] ids = new long[20];
+        long[] parentIds = new long[20];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+            parentIds[i] = i + 1;
+        }
+
+        HierarchyIntegrityDTO report = HierarchyValidator.validate(new HierarchyLinks(ids, parentIds), 32, 3);
+
+        assertEquals(20, report.getCycleCount());
+        assertEquals(3, report.getCycles().size());
+    }
+
+    private static HierarchyLinks links(long... idAndParent) {
+        long[] ids = new long[idAndParent.length / 2];
+        long[] parentIds = new long[idAndParent.length / 2];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idAndParent[2 * i];
+            parentIds[i] = idAndParent[2 * i + 1];
+        }
+        return new HierarchyLinks(ids, parentIds);
+    }
+
+}
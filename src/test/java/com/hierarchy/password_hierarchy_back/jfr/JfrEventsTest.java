@@ -0,0 +1,122 @@
+package com.hierarchy.password_hierarchy_back.jfr;
+
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import com.hierarchy.password_hierarchy_back.services.EmployeeService;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.calculatePasswordStrength;
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.encryptPassword;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JfrEventsTest {
+
+    private static final List<String> EVENTS = List.of("com.hierarchy.PasswordScore", "com.hierarchy.PasswordHash",
+            "com.hierarchy.HierarchyLoad", "com.hierarchy.DtoMapping");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void settingsProfile_ShouldEnableEveryEvent() throws Exception {
+        Map<String, String> settings = loadProfile().getSettings();
+
+        for (String event : EVENTS) {
+            assertEquals("true", settings.get(event + "#enabled"), event);
+        }
+    }
+
+    @Test
+    void events_ShouldBeRecorded_WhenEnabledByProfile() throws Exception {
+        EmployeeRepo employeeRepository = mock(EmployeeRepo.class);
+        EmployeeService employeeService = new EmployeeService(employeeRepository, new HierarchyReadModel(),
+                mock(ApplicationEventPublisher.class));
+        Employee root = createEmployee(1L);
+        Employee manager = createEmployee(2L);
+        manager.getDependents().add(createEmployee(3L));
+        root.getDependents().add(manager);
+        root.getDependents().add(createEmployee(4L));
+        when(employeeRepository.findByDependentIdIsNull()).thenReturn(List.of(root));
+
+        Path file = directory.resolve("events.jfr");
+        try (Recording recording = new Recording(loadProfile())) {
+            // Scoring one short password is far below the profile's threshold.
+            recording.enable("com.hierarchy.PasswordScore").withoutThreshold();
+            recording.start();
+
+            calculatePasswordStrength("Password123!");
+            encryptPassword("Password123!");
+            employeeService.getAllEmployees();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(12, event(events, "com.hierarchy.PasswordScore").getInt("length"));
+        assertEquals(10, event(events, "com.hierarchy.PasswordHash").getInt("cost"));
+
+        RecordedEvent load = event(events, "com.hierarchy.HierarchyLoad");
+        assertEquals("tree", load.getString("operation"));
+        assertEquals(4, load.getInt("nodeCount"));
+        assertEquals(3, load.getInt("depth"));
+        assertEquals(-1, load.getInt("queryCount"));
+
+        RecordedEvent mapping = event(events, "com.hierarchy.DtoMapping");
+        assertEquals("EmployeeResponseDTO", mapping.getString("dtoType"));
+        assertEquals(1, mapping.getInt("entityCount"));
+    }
+
+    @Test
+    void events_ShouldBeDisabled_ByDefault() throws Exception {
+        Path file = directory.resolve("default.jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            calculatePasswordStrength("Password123!");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(RecordingFile.readAllEvents(file).stream()
+                .noneMatch(event -> EVENTS.contains(event.getEventType().getName())));
+    }
+
+    private static Configuration loadProfile() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                JfrEventsTest.class.getResourceAsStream("/jfr/password-hierarchy.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static RecordedEvent event(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + name + " event recorded"));
+    }
+
+    private static Employee createEmployee(Long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setName("Employee " + id);
+        employee.setPasswordStrengthValue(50L);
+        return employee;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.encryptPassword;
+
+/**
+ * Seeds a synthetic hierarchy straight through JDBC, so seeding does not pay one BCrypt hash per row.
+ */
+public class HierarchySeeder {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HierarchySeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Spreads {@code employees} rows over {@code roots} top-level employees and {@code depth} levels below them;
+     * every level is as wide as needed and each employee reports to a random employee of the level above.
+     *
+     * @return the seeded hierarchy, indexed by position
+     */
+    public SeededHierarchy seed(LoadTestSettings settings) {
+        final int employees = Math.max(settings.employees(), settings.roots());
+        final int levels = settings.depth() + 1;
+        final Random random = new Random(42);
+        final String passwordHash = encryptPassword("Seed#Password1");
+
+        final long firstId = nextId();
+        final long[] ids = new long[employees];
+        final long[] parents = new long[employees];
+        final List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+        int levelStart = 0;
+        int levelEnd = Math.min(settings.roots(), employees);
+        int previousStart = -1;
+        int previousEnd = -1;
+        int level = 0;
+
+        for (int i = 0; i < employees; i++) {
+            if (i == levelEnd) {
+                level++;
+                previousStart = levelStart;
+                previousEnd = levelEnd;
+                levelStart = levelEnd;
+                final int remaining = employees - levelStart;
+                levelEnd = levelStart + (level == levels - 1 ? remaining : Math.max(1, remaining / (levels - level)));
+            }
+
+            ids[i] = firstId + i;
+            parents[i] = previousStart < 0 ? 0 : ids[previousStart + random.nextInt(previousEnd - previousStart)];
+
+            batch.add(new Object[]{ids[i], "Employee " + i, "employee" + i + "@loadtest.local", passwordHash,
+                    30 + random.nextInt(70), parents[i] == 0 ? null : parents[i]});
+            if (batch.size() == BATCH_SIZE) {
+                flush(batch);
+            }
+        }
+        flush(batch);
+
+        return new SeededHierarchy(ids, parents);
+    }
+
+    private long nextId() {
+        final Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM employees", Long.class);
+        return max == null ? 1 : max + 1;
+    }
+
+    private void flush(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    /**
+     * @param ids     employee ids, parents always before their dependents
+     * @param parents manager id of each employee, {@code 0} for roots
+     */
+    public record SeededHierarchy(long[] ids, long[] parents) {
+
+        public int size() {
+            return ids.length;
+        }
+    }
+
+}
@@ -0,0 +1,264 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import com.hierarchy.password_hierarchy_back.PasswordHierarchyBackApplication;
+import com.hierarchy.password_hierarchy_back.loadtest.HierarchySeeder.SeededHierarchy;
+import com.hierarchy.password_hierarchy_back.loadtest.Workload.Operation;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts the service on a random local port against an embedded (or {@code -Dloadtest.datasource.url}) database,
+ * seeds a synthetic hierarchy and drives each {@link Workload} at a fixed request rate.
+ * <p>
+ * Every worker sends on a fixed schedule and latency is measured from the <em>intended</em> send time, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load (coordinated omission).
+ * Reports are written as HdrHistogram percentile distributions to {@code loadtest.reportDir}.
+ * <p>
+ * Each workload runs once per {@code loadtest.formats} entry ({@link WireFormat}), and the summary line includes the
+ * response bytes received, so JSON, Smile and CBOR can be compared on payload size and latency in one run.
+ * <p>
+ * Run with {@code mvn -Ploadtest test-compile exec:java -Dloadtest.employees=5000 -Dloadtest.depth=8}.
+ */
+public class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+    private static final String PASSWORD_ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%&*";
+
+    private final LoadTestSettings settings;
+    private final SeededHierarchy hierarchy;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final AtomicLong createdCount = new AtomicLong();
+
+    public LoadTestRunner(LoadTestSettings settings, SeededHierarchy hierarchy, int port) {
+        this.settings = settings;
+        this.hierarchy = hierarchy;
+        this.baseUrl = "http://localhost:" + port + "/api/employee";
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(settings.workers()))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PasswordHierarchyBackApplication.class)
+                .profiles("test")
+                .properties("server.port=0",
+                        "spring.datasource.url=" + settings.datasourceUrl(),
+                        "logging.level.root=WARN")
+                .run(args)) {
+
+            final int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            final SeededHierarchy hierarchy = new HierarchySeeder(context.getBean(JdbcTemplate.class)).seed(settings);
+            System.out.printf("Seeded %d employees (%d roots, depth %d)%n",
+                    hierarchy.size(), settings.roots(), settings.depth());
+
+            final LoadTestRunner runner = new LoadTestRunner(settings, hierarchy, port);
+            Files.createDirectories(settings.reportDir());
+            for (Workload workload : settings.workloads()) {
+                for (WireFormat format : settings.formats()) {
+                    runner.run(workload, format);
+                }
+            }
+        }
+        System.exit(0);
+    }
+
+    public void run(Workload workload, WireFormat format) throws InterruptedException, IOException {
+        final String name = workload + "/" + format;
+        System.out.printf("%s: warming up for %ds%n", name, settings.warmup().toSeconds());
+        drive(workload, format, settings.warmup());
+
+        System.out.printf("%s: recording for %ds at %d req/s%n", name, settings.duration().toSeconds(), settings.rate());
+        final Result result = drive(workload, format, settings.duration());
+
+        writeReport(workload, format, result);
+    }
+
+    private Result drive(Workload workload, WireFormat format, Duration duration) throws InterruptedException {
+        final int workers = settings.workers();
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) * workers / Math.max(1, settings.rate());
+        final long start = System.nanoTime();
+        final long end = start + duration.toNanos();
+
+        final ExecutorService pool = Executors.newFixedThreadPool(workers);
+        final List<Future<Result>> futures = new ArrayList<>(workers);
+        for (int worker = 0; worker < workers; worker++) {
+            // Stagger workers so the combined schedule is evenly spaced.
+            final long firstSend = start + intervalNanos * worker / workers;
+            futures.add(pool.submit(() -> driveWorker(workload, format, firstSend, end, intervalNanos)));
+        }
+
+        final Result total = new Result();
+        for (Future<Result> future : futures) {
+            try {
+                total.add(future.get());
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load test worker failed", e.getCause());
+            }
+        }
+        pool.shutdown();
+        total.elapsedNanos = System.nanoTime() - start;
+        return total;
+    }
+
+    private Result driveWorker(Workload workload, WireFormat format, long firstSend, long end, long intervalNanos) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Result result = new Result();
+
+        for (long intendedStart = firstSend; intendedStart < end; intendedStart += intervalNanos) {
+            final long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            final long actualStart = System.nanoTime();
+            final long received = send(workload.next(random), format, random);
+            final long finished = System.nanoTime();
+
+            result.responseTime.recordValue(Math.min(finished - intendedStart, HIGHEST_TRACKABLE_NANOS));
+            result.serviceTime.recordValue(Math.min(finished - actualStart, HIGHEST_TRACKABLE_NANOS));
+            if (received < 0) {
+                result.errors++;
+            } else {
+                result.bytes += received;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of response body bytes, or {@code -1} when the request failed
+     */
+    private long send(Operation operation, WireFormat format, ThreadLocalRandom random) {
+        final HttpRequest request = switch (operation) {
+            case SCORE -> post("/score", format, Map.of("item", randomPassword(random)));
+            case READ_TREE -> get("/employees", format);
+            case READ_SUBTREE -> get("/" + randomEmployee(random), format);
+            case READ_DEPENDENTS -> get("/dependents/" + randomEmployee(random), format);
+            case SEARCH -> get("/name?name=Employee%20" + random.nextInt(hierarchy.size()), format);
+            case CREATE -> post("", format, employee("Load " + createdCount.incrementAndGet(),
+                    hierarchy.ids()[random.nextInt(hierarchy.size())], random));
+            case UPDATE -> {
+                final int index = random.nextInt(hierarchy.size());
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/" + hierarchy.ids()[index]))
+                        .header("Content-Type", format.mediaType())
+                        .header("Accept", format.mediaType())
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(
+                                format.encode(employee("Employee " + index, hierarchy.parents()[index], random))))
+                        .build();
+            }
+        };
+
+        try {
+            final HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() < 400 ? response.body().length : -1;
+        } catch (IOException e) {
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private HttpRequest get(String path, WireFormat format) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Accept", format.mediaType())
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, WireFormat format, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", format.mediaType())
+                .header("Accept", format.mediaType())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(format.encode(body)))
+                .build();
+    }
+
+    private long randomEmployee(ThreadLocalRandom random) {
+        return hierarchy.ids()[random.nextInt(hierarchy.size())];
+    }
+
+    private static Map<String, Object> employee(String name, long dependentId, ThreadLocalRandom random) {
+        return Map.of("name", name, "email", "load@loadtest.local", "password", randomPassword(random),
+                "dependentId", dependentId);
+    }
+
+    private static String randomPassword(ThreadLocalRandom random) {
+        final char[] password = new char[8 + random.nextInt(12)];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = PASSWORD_ALPHABET.charAt(random.nextInt(PASSWORD_ALPHABET.length()));
+        }
+        return new String(password);
+    }
+
+    private void writeReport(Workload workload, WireFormat format, Result result) throws IOException {
+        final String name = workload + "/" + format;
+        final String fileName = workload.name().toLowerCase() + "-" + format.name().toLowerCase();
+        final Path responseReport = settings.reportDir().resolve(fileName + ".hgrm");
+        final Path serviceReport = settings.reportDir().resolve(fileName + "-service.hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(responseReport))) {
+            result.responseTime.outputPercentileDistribution(out, 1_000_000.0);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(serviceReport))) {
+            result.serviceTime.outputPercentileDistribution(out, 1_000_000.0);
+        }
+
+        final Histogram latency = result.responseTime;
+        final double seconds = result.elapsedNanos / 1e9;
+        final long succeeded = latency.getTotalCount() - result.errors;
+        System.out.printf("%s: %d requests (%.1f req/s), %d errors | p50 %.2fms p90 %.2fms p99 %.2fms p99.9 %.2fms max %.2fms%n",
+                name, latency.getTotalCount(), latency.getTotalCount() / seconds, result.errors,
+                millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / 1e6);
+        System.out.printf("%s: %d response bytes, %.0f bytes/response%n",
+                name, result.bytes, succeeded == 0 ? 0.0 : (double) result.bytes / succeeded);
+        System.out.printf("%s: reports written to %s and %s%n", name, responseReport, serviceReport);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    /**
+     * Latency measured from the scheduled send time (response time) and from the actual send time (service time).
+     */
+    private static class Result {
+
+        private final Histogram responseTime = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final Histogram serviceTime = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private long errors;
+        private long bytes;
+        private long elapsedNanos;
+
+        private void add(Result other) {
+            responseTime.add(other.responseTime);
+            serviceTime.add(other.serviceTime);
+            errors += other.errors;
+            bytes += other.bytes;
+        }
+    }
+
+}
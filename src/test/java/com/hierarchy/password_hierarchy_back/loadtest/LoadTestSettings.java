@@ -0,0 +1,58 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Load test knobs, read from {@code -Dloadtest.*} system properties.
+ *
+ * @param employees     size of the seeded hierarchy
+ * @param depth         number of levels below the roots
+ * @param roots         number of top-level employees
+ * @param rate          target requests per second, spread over all workers
+ * @param workers       number of concurrent client threads
+ * @param warmup        time spent driving load before recording starts
+ * @param duration      recorded time per workload
+ * @param workloads     workloads to run, in order
+ * @param formats       wire formats every workload is run with, in order
+ * @param datasourceUrl JDBC url of the database the service runs against
+ * @param reportDir     directory the percentile reports are written to
+ */
+public record LoadTestSettings(int employees, int depth, int roots, int rate, int workers, Duration warmup,
+                               Duration duration, List<Workload> workloads, List<WireFormat> formats, String datasourceUrl,
+                               Path reportDir) {
+
+    private static final String PREFIX = "loadtest.";
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                intProperty("employees", 2_000),
+                intProperty("depth", 6),
+                intProperty("roots", 5),
+                intProperty("rate", 200),
+                intProperty("workers", 16),
+                Duration.ofSeconds(intProperty("warmupSeconds", 10)),
+                Duration.ofSeconds(intProperty("durationSeconds", 30)),
+                Arrays.stream(property("workloads", "SCORE_HEAVY,READ_TREE_HEAVY,WRITE_BURST").split(","))
+                        .map(String::trim)
+                        .map(Workload::valueOf)
+                        .toList(),
+                Arrays.stream(property("formats", "JSON").split(","))
+                        .map(String::trim)
+                        .map(WireFormat::valueOf)
+                        .toList(),
+                property("datasource.url", "jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"),
+                Path.of(property("reportDir", "target/loadtest")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        return Integer.parseInt(property(name, String.valueOf(defaultValue)));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import com.hierarchy.password_hierarchy_back.utils.BatchPasswordScorer;
+import com.hierarchy.password_hierarchy_back.utils.PasswordBatch;
+import com.hierarchy.password_hierarchy_back.utils.PasswordUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Single-threaded scoring throughput of {@link PasswordUtils#calculatePasswordStrength(String)} and both
+ * {@link BatchPasswordScorer} kernels over the same random candidates, reported as passwords per second per core.
+ * Also checks that every kernel agrees with the scalar scorer before timing anything.
+ * <p>
+ * Run with {@code mvn -Pscoring-benchmark test-compile exec:exec -Dbenchmark.passwords=1000000}.
+ */
+public class ScoringBenchmark {
+
+    private static final String ALPHABET =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%&*-_.";
+
+    public static void main(String[] args) {
+        final int count = Integer.getInteger("benchmark.passwords", 1_000_000);
+        final int rounds = Integer.getInteger("benchmark.rounds", 5);
+
+        final Random random = new Random(42);
+        final List<String> passwords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final char[] password = new char[8 + random.nextInt(16)];
+            for (int j = 0; j < password.length; j++) {
+                password[j] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+            }
+            passwords.add(new String(password));
+        }
+        final PasswordBatch batch = PasswordBatch.of(passwords);
+
+        final BatchPasswordScorer vector = new BatchPasswordScorer();
+        final BatchPasswordScorer scalar = BatchPasswordScorer.scalar();
+        final long[] expected = passwords.stream().mapToLong(PasswordUtils::calculatePasswordStrength).toArray();
+        if (!Arrays.equals(expected, vector.score(batch)) || !Arrays.equals(expected, scalar.score(batch))) {
+            throw new IllegalStateException("Batch kernels disagree with PasswordUtils");
+        }
+
+        System.out.printf("%d passwords, %d rounds, %d available cores%n",
+                count, rounds, Runtime.getRuntime().availableProcessors());
+        measure("PasswordUtils", rounds, count, () -> {
+            long sum = 0;
+            for (String password : passwords) {
+                sum += PasswordUtils.calculatePasswordStrength(password);
+            }
+            return sum;
+        });
+        measure("batch/" + scalar.getKernelName(), rounds, count, () -> Arrays.stream(scalar.score(batch)).sum());
+        measure("batch/" + vector.getKernelName(), rounds, count, () -> Arrays.stream(vector.score(batch)).sum());
+    }
+
+    private static void measure(String name, int rounds, int count, Round round) {
+        // The first round is warm-up and is not reported.
+        long checksum = round.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            final long start = System.nanoTime();
+            checksum += round.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-24s %,14.0f passwords/s/core  (best of %d, checksum %d)%n",
+                name, count / (best / 1e9), rounds, checksum);
+    }
+
+    private interface Round {
+        long run();
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Body encodings the load test can speak, sent as both {@code Content-Type} and {@code Accept}.
+ */
+public enum WireFormat {
+    JSON("application/json", new ObjectMapper()),
+    SMILE("application/x-jackson-smile", new ObjectMapper(new SmileFactory())),
+    CBOR("application/cbor", new ObjectMapper(new CBORFactory()));
+
+    private final String mediaType;
+    private final ObjectMapper objectMapper;
+
+    WireFormat(String mediaType, ObjectMapper objectMapper) {
+        this.mediaType = mediaType;
+        this.objectMapper = objectMapper;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public byte[] encode(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.hierarchy.password_hierarchy_back.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Weighted request mixes driven against {@code EmployeeController}.
+ */
+public enum Workload {
+    SCORE_HEAVY(new Operation[]{Operation.SCORE, Operation.READ_SUBTREE, Operation.SEARCH},
+            new int[]{80, 10, 10}),
+    READ_TREE_HEAVY(new Operation[]{Operation.READ_TREE, Operation.READ_SUBTREE, Operation.READ_DEPENDENTS},
+            new int[]{50, 30, 20}),
+    WRITE_BURST(new Operation[]{Operation.CREATE, Operation.UPDATE, Operation.READ_TREE},
+            new int[]{50, 30, 20});
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Workload(Operation[] operations, int[] weights) {
+        this.operations = operations;
+        this.cumulativeWeights = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public Operation next(ThreadLocalRandom random) {
+        final int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    public enum Operation {
+        SCORE, READ_TREE, READ_SUBTREE, READ_DEPENDENTS, SEARCH, CREATE, UPDATE
+    }
+}
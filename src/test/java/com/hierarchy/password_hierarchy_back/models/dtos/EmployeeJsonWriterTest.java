@@ -0,0 +1,119 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.exceptions.HierarchyCycleException;
+import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeJsonWriter.writeEmployees;
+import static com.hierarchy.password_hierarchy_back.models.dtos.EmployeeResponseDTO.toEmployees;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EmployeeJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void writeEmployees_ShouldMatchDtoSerialization() throws Exception {
+        Employee root = createEmployee(1L, "John Doe", "john.doe@example.com", 70L, null);
+        Employee manager = createEmployee(2L, "Marie \"Key\"", null, 10L, 1L);
+        Employee dependent = createEmployee(3L, "Peter Elison", "peter@example.com", 95L, 2L);
+        manager.getDependents().add(dependent);
+        root.getDependents().add(manager);
+        Employee other = createEmployee(4L, "Ana Lúcia", "ana@example.com", 50L, null);
+        other.setDependents(null);
+
+        List<Employee> employees = List.of(root, other);
+
+        assertEquals(objectMapper.writeValueAsString(toEmployees(employees)), write(employees));
+    }
+
+    @Test
+    void writeEmployees_ShouldWriteEmptyArray_WhenNoEmployees() throws Exception {
+        assertEquals(objectMapper.writeValueAsString(toEmployees(List.of())), write(List.of()));
+    }
+
+    @Test
+    void writeEmployees_ShouldRefuseCycles() {
+        Employee first = createEmployee(1L, "John Doe", null, 70L, 3L);
+        Employee second = createEmployee(2L, "Marie Key", null, 10L, 1L);
+        Employee third = createEmployee(3L, "Peter Elison", null, 95L, 2L);
+        first.getDependents().add(second);
+        second.getDependents().add(third);
+        third.getDependents().add(first);
+
+        assertThrows(HierarchyCycleException.class, () -> write(List.of(first)));
+        assertThrows(HierarchyCycleException.class, () -> toEmployees(List.of(second)));
+    }
+
+    @Test
+    void writeEmployees_ShouldAllowSharedEmployeeOutsideItsOwnPath() throws Exception {
+        Employee dependent = createEmployee(3L, "Peter Elison", null, 95L, 1L);
+        Employee first = createEmployee(1L, "John Doe", null, 70L, null);
+        Employee second = createEmployee(2L, "Marie Key", null, 10L, null);
+        first.getDependents().add(dependent);
+        second.getDependents().add(dependent);
+
+        List<Employee> employees = List.of(first, second);
+
+        assertEquals(objectMapper.writeValueAsString(toEmployees(employees)), write(employees));
+    }
+
+    @Test
+    void writeEmployees_ShouldWriteTheSameTreeFromTheIndex() throws Exception {
+        Employee root = createEmployee(1L, "John Doe", "john.doe@example.com", 70L, null);
+        Employee manager = createEmployee(2L, "Marie \"Key\"", null, 10L, 1L);
+        Employee dependent = createEmployee(3L, "Peter Elison", "peter@example.com", 95L, 2L);
+        Employee sibling = createEmployee(5L, "Ana Lúcia", "ana@example.com", 50L, 1L);
+        manager.getDependents().add(dependent);
+        root.getDependents().add(manager);
+        root.getDependents().add(sibling);
+        Employee other = createEmployee(4L, "Carla Dias", null, 30L, null);
+
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                new EmployeeState(5L, "Ana Lúcia", "ana@example.com", 1L, 50L),
+                new EmployeeState(3L, "Peter Elison", "peter@example.com", 2L, 95L),
+                new EmployeeState(4L, "Carla Dias", null, 0L, 30L),
+                new EmployeeState(2L, "Marie \"Key\"", null, 1L, 10L),
+                new EmployeeState(1L, "John Doe", "john.doe@example.com", 0L, 70L)), 1);
+
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writeEmployees(generator, index);
+        }
+
+        assertEquals(write(List.of(root, other)), out.toString());
+        assertEquals(objectMapper.writeValueAsString(EmployeeResponseDTO.fromEntity(manager)),
+                objectMapper.writeValueAsString(EmployeeResponseDTO.fromIndex(index, index.positionOf(2L))));
+    }
+
+    @Test
+    void fromIndex_ShouldRefuseCycles() {
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                new EmployeeState(1L, "John Doe", null, 2L, 70L),
+                new EmployeeState(2L, "Marie Key", null, 1L, 10L)), 1);
+
+        assertThrows(HierarchyCycleException.class, () -> EmployeeResponseDTO.fromIndex(index, index.positionOf(1L)));
+    }
+
+    private String write(List<Employee> employees) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writeEmployees(generator, employees);
+        }
+        return out.toString();
+    }
+
+    private Employee createEmployee(Long id, String name, String email, Long strength, Long dependentId) {
+        return new Employee(id, name, email, "hash", strength, dependentId, 0L, new ArrayList<>());
+    }
+
+}
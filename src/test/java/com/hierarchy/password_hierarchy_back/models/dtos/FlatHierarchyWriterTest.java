@@ -0,0 +1,56 @@
+package com.hierarchy.password_hierarchy_back.models.dtos;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static com.hierarchy.password_hierarchy_back.models.dtos.FlatHierarchyWriter.writeColumns;
+import static com.hierarchy.password_hierarchy_back.utils.StrengthLabel.getLabelByStrength;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FlatHierarchyWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HierarchyIndex index = HierarchyIndex.build(List.of(
+            new EmployeeState(3L, "Peter Elison", "peter@example.com", 2L, 95L),
+            new EmployeeState(2L, "Marie \"Key\"", null, 1L, 10L),
+            new EmployeeState(1L, "John Doe", "john.doe@example.com", 0L, 70L),
+            new EmployeeState(4L, "Ana Lúcia", "ana@example.com", 0L, 50L)), 0L);
+
+    @Test
+    void writeColumns_ShouldListManagersBeforeDependents() throws Exception {
+        JsonNode json = write(index.breadthFirstOrder());
+
+        assertEquals("[1,4,2,3]", json.get("id").toString());
+        assertEquals("[0,0,1,2]", json.get("parentId").toString());
+        assertEquals("[70,50,10,95]", json.get("strength").toString());
+        assertEquals("Marie \"Key\"", json.get("name").get(2).asText());
+        assertEquals("Ana Lúcia", json.get("name").get(1).asText());
+        assertEquals(true, json.get("email").get(2).isNull());
+        assertEquals(getLabelByStrength(10L), json.get("label").get(2).asText());
+    }
+
+    @Test
+    void writeColumns_ShouldWriteOnlyTheSubtree() throws Exception {
+        JsonNode json = write(index.subtreeOrder(index.positionOf(2L)));
+
+        assertEquals("[2,3]", json.get("id").toString());
+        assertEquals("[1,2]", json.get("parentId").toString());
+    }
+
+    private JsonNode write(int[] positions) throws Exception {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writeColumns(generator, index, positions);
+        }
+        return objectMapper.readTree(out.toString());
+    }
+
+}
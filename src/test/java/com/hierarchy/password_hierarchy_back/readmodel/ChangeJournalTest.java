@@ -0,0 +1,146 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeJournalTest {
+
+    private static final int CAPACITY = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recover_ShouldReturnEmpty_WhenNoSnapshotExists() throws Exception {
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            assertTrue(journal.recover().isEmpty());
+        }
+    }
+
+    @Test
+    void recover_ShouldReplaySnapshotAndJournalTail() throws Exception {
+        EmployeeState john = new EmployeeState(1L, "John Doe", "john.doe@example.com", 0L, 70L);
+        EmployeeState marie = new EmployeeState(2L, "Marie Key", null, 1L, 50L);
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            journal.recover();
+            journal.checkpoint(List.of(john, marie), 0);
+
+            EmployeeState renamed = new EmployeeState(2L, "Marie Kéy", "marie@example.com", 1L, 55L);
+            EmployeeState peter = new EmployeeState(3L, "Peter Elison", null, 2L, 60L);
+            assertTrue(journal.append(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 1, marie, renamed)));
+            assertTrue(journal.append(new EmployeeChangeEvent(EmployeeChangeType.CREATED, 2, null, peter)));
+            assertTrue(journal.append(new EmployeeChangeEvent(EmployeeChangeType.DELETED, 3, john, null)));
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            Map<Long, EmployeeState> recovered = byId(journal.recover().orElseThrow().employees());
+
+            assertEquals(Set.of(2L, 3L), recovered.keySet());
+            assertEquals(new EmployeeState(2L, "Marie Kéy", "marie@example.com", 1L, 55L), recovered.get(2L));
+            assertEquals(new EmployeeState(3L, "Peter Elison", null, 2L, 60L), recovered.get(3L));
+        }
+    }
+
+    @Test
+    void recover_ShouldReturnTheHighestRowVersion() throws Exception {
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            journal.recover();
+            journal.checkpoint(List.of(created(1).current()), 40);
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            assertEquals(40, journal.recover().orElseThrow().rowVersion());
+            journal.append(new EmployeeChangeEvent(EmployeeChangeType.CREATED, 43, null, created(2).current()));
+            journal.append(new EmployeeChangeEvent(EmployeeChangeType.DELETED, 42, created(1).current(), null));
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            ChangeJournal.Recovered recovered = journal.recover().orElseThrow();
+
+            assertEquals(43, recovered.rowVersion());
+            assertEquals(Set.of(2L), byId(recovered.employees()).keySet());
+        }
+    }
+
+    @Test
+    void checkpoint_ShouldCompactJournal() throws Exception {
+        EmployeeState john = new EmployeeState(1L, "John Doe", null, 0L, 70L);
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            journal.recover();
+            journal.append(new EmployeeChangeEvent(EmployeeChangeType.CREATED, 1, null, john));
+            int used = journal.usedBytes();
+
+            journal.checkpoint(List.of(john), 1);
+
+            assertTrue(journal.usedBytes() < used);
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            assertEquals(List.of(john), List.copyOf(journal.recover().orElseThrow().employees()));
+        }
+    }
+
+    @Test
+    void append_ShouldReportFullJournal() throws Exception {
+        try (ChangeJournal journal = new ChangeJournal(directory, 2048, false)) {
+            journal.recover();
+            int appended = 0;
+            while (journal.append(created(appended + 1))) {
+                appended++;
+            }
+
+            assertTrue(appended > 0);
+            assertTrue(journal.usedBytes() <= journal.capacityBytes());
+        }
+    }
+
+    @Test
+    void recover_ShouldStopAtCorruptedRecord() throws Exception {
+        int tornRecordOffset;
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            journal.recover();
+            journal.checkpoint(List.of(), 0);
+            journal.append(created(1));
+            tornRecordOffset = journal.usedBytes();
+            journal.append(created(2));
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(ChangeJournal.JOURNAL_FILE).toFile(), "rw")) {
+            file.seek(tornRecordOffset + 12);
+            file.write(0x7F);
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            assertEquals(Set.of(1L), byId(journal.recover().orElseThrow().employees()).keySet());
+            // The torn tail is overwritten by the next append.
+            journal.append(created(3));
+        }
+
+        try (ChangeJournal journal = new ChangeJournal(directory, CAPACITY, false)) {
+            assertEquals(Set.of(1L, 3L), byId(journal.recover().orElseThrow().employees()).keySet());
+        }
+    }
+
+    private static EmployeeChangeEvent created(long id) {
+        return new EmployeeChangeEvent(EmployeeChangeType.CREATED, id, null,
+                new EmployeeState(id, "Employee " + id, "employee" + id + "@example.com", 0L, 40L));
+    }
+
+    private static Map<Long, EmployeeState> byId(Collection<EmployeeState> states) {
+        Map<Long, EmployeeState> byId = new HashMap<>();
+        states.forEach(state -> byId.put(state.id(), state));
+        return byId;
+    }
+
+}
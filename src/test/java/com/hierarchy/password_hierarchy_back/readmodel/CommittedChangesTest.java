@@ -0,0 +1,119 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.services.NameAutocompleteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Publishes changes the way {@code EmployeeService} does, inside a transaction, and checks that the in-memory views
+ * follow only the ones that commit.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class CommittedChangesTest {
+
+    // Far above the ids the other tests create, so the read model they share never shows this row to them.
+    private static final long ID = 9_000_001L;
+    private static final EmployeeState STATE = new EmployeeState(ID, "Rolled Back", null, 0, 90);
+    // The read model ignores changes older than the last one it applied to a row, or than the rows it loaded or synced,
+    // so every change gets a later version.
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private HierarchyReadModel readModel;
+
+    @Autowired
+    private StrengthHistogram strengthHistogram;
+
+    @Autowired
+    private NameAutocompleteService nameAutocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        VERSIONS.accumulateAndGet(readModel.getVersion(), Math::max);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readModel.get(ID).ifPresent(state -> publish(EmployeeChangeType.DELETED, state, null, false));
+    }
+
+    @Test
+    void rolledBackChange_ShouldNotReachTheInMemoryViews() {
+        final long total = strengthHistogram.snapshot().getTotal();
+
+        nameAutocompleteService.preload();
+
+        publish(EmployeeChangeType.CREATED, null, STATE, true);
+
+        assertTrue(readModel.get(ID).isEmpty());
+        assertEquals(total, strengthHistogram.snapshot().getTotal());
+        assertFalse(isSuggested("Rolled"));
+    }
+
+    @Test
+    void committedChange_ShouldReachTheInMemoryViews() {
+        final long total = strengthHistogram.snapshot().getTotal();
+
+        nameAutocompleteService.preload();
+
+        publish(EmployeeChangeType.CREATED, null, STATE, false);
+
+        assertEquals(STATE, readModel.get(ID).orElseThrow());
+        assertEquals(total + 1, strengthHistogram.snapshot().getTotal());
+        assertTrue(isSuggested("Rolled"));
+    }
+
+    @Test
+    void supersededChange_ShouldNotOverwriteTheSuggestion() {
+        final EmployeeState renamed = new EmployeeState(ID, "Renamed", null, 0, 90);
+        nameAutocompleteService.preload();
+        publish(EmployeeChangeType.CREATED, null, STATE, false);
+
+        // The rename is the newer change, but its listeners run before those of the older one.
+        final long version = VERSIONS.addAndGet(2);
+        final EmployeeChangeEvent rename = new EmployeeChangeEvent(EmployeeChangeType.UPDATED, version, STATE, renamed);
+        final EmployeeChangeEvent late = new EmployeeChangeEvent(EmployeeChangeType.UPDATED, version - 1, renamed, STATE);
+        eventPublisher.publishEvent(rename);
+        eventPublisher.publishEvent(late);
+
+        assertEquals(renamed, readModel.get(ID).orElseThrow());
+        assertTrue(isSuggested("Renamed"));
+        assertFalse(isSuggested("Rolled"));
+    }
+
+    private boolean isSuggested(String prefix) {
+        return nameAutocompleteService.suggest(prefix, 50).stream().anyMatch(suggestion -> suggestion.getId() == ID);
+    }
+
+    private void publish(EmployeeChangeType type, EmployeeState previous, EmployeeState current, boolean rollback) {
+        final EmployeeChangeEvent event = new EmployeeChangeEvent(type, VERSIONS.incrementAndGet(), previous, current);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+}
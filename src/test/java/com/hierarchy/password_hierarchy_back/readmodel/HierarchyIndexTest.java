@@ -0,0 +1,91 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchyIndexTest {
+
+    @Test
+    void build_ShouldLayOutEmployeesByIdWithDependentsInIdOrder() {
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                employee(30L, 10L, "Marie Key"),
+                employee(10L, 0L, "John Doe"),
+                employee(20L, 10L, "Peter Elison")), 4L);
+
+        assertEquals(4L, index.getRevision());
+        assertEquals(-1, index.positionOf(15L));
+        int root = index.positionOf(10L);
+        assertEquals(0, root);
+        assertEquals("John Doe", index.nameAt(root));
+        assertEquals(2, index.endChild(root) - index.firstChild(root));
+        assertEquals(20L, index.idAt(index.childAt(index.firstChild(root))));
+        assertEquals(30L, index.idAt(index.childAt(index.firstChild(root) + 1)));
+        assertEquals(10L, index.dependentIdAt(index.positionOf(30L)));
+        assertEquals(employee(30L, 10L, "Marie Key"), index.employeeAt(index.positionOf(30L)));
+    }
+
+    @Test
+    void ancestorsOf_ShouldListManagersNearestFirst() {
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                employee(1L, 0L, "Root"),
+                employee(2L, 1L, "Manager"),
+                employee(3L, 2L, "Lead"),
+                employee(4L, 3L, "Developer")), 0L);
+
+        assertArrayEquals(new long[]{3L, 2L, 1L}, ids(index, index.ancestorsOf(index.positionOf(4L))));
+        assertArrayEquals(new long[0], ids(index, index.ancestorsOf(index.positionOf(1L))));
+    }
+
+    @Test
+    void ancestorsOf_ShouldListEachCycleMemberOnce() {
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                employee(1L, 3L, "First"),
+                employee(2L, 1L, "Second"),
+                employee(3L, 2L, "Third"),
+                employee(4L, 3L, "Outside")), 0L);
+
+        assertArrayEquals(new long[]{3L, 2L, 1L}, ids(index, index.ancestorsOf(index.positionOf(4L))));
+        assertArrayEquals(new long[]{3L, 2L}, ids(index, index.ancestorsOf(index.positionOf(1L))));
+    }
+
+    @Test
+    void build_ShouldShareEqualStrings() {
+        HierarchyIndex index = HierarchyIndex.build(List.of(
+                new EmployeeState(1L, new String("Ana Silva"), "team@example.com", 0L, 50L),
+                new EmployeeState(2L, new String("Ana Silva"), "team@example.com", 1L, 50L)), 0L);
+
+        assertSame(index.nameAt(0), index.nameAt(1));
+    }
+
+    @Test
+    void structureBytes_ShouldStayInTheTensOfBytesPerEmployee() {
+        List<EmployeeState> employees = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            employees.add(new EmployeeState(id, "Employee " + id, "employee" + id + "@example.com", id / 10, id % 101));
+        }
+
+        HierarchyIndex index = HierarchyIndex.build(employees, 0L);
+
+        long perEmployee = index.structureBytes() / index.size();
+        assertTrue(perEmployee >= 40 && perEmployee < 64, "bytes per employee: " + perEmployee);
+        assertTrue(index.stringBytes() > 0);
+    }
+
+    private static long[] ids(HierarchyIndex index, int[] positions) {
+        long[] ids = new long[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            ids[i] = index.idAt(positions[i]);
+        }
+        return ids;
+    }
+
+    private static EmployeeState employee(long id, long dependentId, String name) {
+        return new EmployeeState(id, name, null, dependentId, 50L);
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HierarchyReadModelTest {
+
+    @Test
+    void apply_ShouldOverlayChangesUntilTheIndexIsRebuilt() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.completeLoad(List.of(employee(1L, 0L), employee(2L, 1L)), 0);
+        HierarchyIndex loaded = readModel.getIndex();
+
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.CREATED, 1, null, employee(3L, 1L)));
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.DELETED, 2, employee(2L, 1L), null));
+
+        assertEquals(2, readModel.size());
+        assertTrue(readModel.get(2L).isEmpty());
+        assertEquals(1L, readModel.get(3L).orElseThrow().dependentId());
+
+        HierarchyIndex index = readModel.getIndex();
+        assertNotSame(loaded, index);
+        assertEquals(readModel.getRevision(), index.getRevision());
+        assertEquals(-1, index.positionOf(2L));
+        assertEquals(1, index.endChild(index.positionOf(1L)) - index.firstChild(index.positionOf(1L)));
+        assertSame(index, readModel.getIndex());
+        assertEquals(2, readModel.size());
+    }
+
+    @Test
+    void completeLoad_ShouldReapplyChangesQueuedDuringTheLoad() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.beginLoad();
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 1, employee(1L, 0L), employee(1L, 0L, 90L)));
+
+        readModel.completeLoad(List.of(employee(1L, 0L)), 0);
+
+        assertEquals(90L, readModel.getIndex().strengthAt(0));
+        assertEquals(1L, readModel.getLoadCount());
+    }
+
+    @Test
+    void completeLoad_ShouldSkipQueuedChangesTheLoadAlreadySaw() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.beginLoad();
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 3, employee(1L, 0L), employee(1L, 0L, 40L)));
+
+        readModel.completeLoad(List.of(employee(1L, 0L, 90L)), 4);
+
+        assertEquals(90L, readModel.get(1L).orElseThrow().passwordStrengthValue());
+    }
+
+    @Test
+    void completeSync_ShouldForgetVersionsUpToTheSyncedOne() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.completeLoad(List.of(employee(1L, 0L), employee(2L, 1L)), 0);
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 5, employee(1L, 0L), employee(1L, 0L, 90L)));
+        readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.DELETED, 6, employee(2L, 1L), null));
+        assertTrue(readModel.appliedVersionBytes() > 0);
+
+        readModel.completeSync(6, false);
+
+        assertEquals(0L, readModel.appliedVersionBytes());
+        assertEquals(1L, readModel.getLoadCount());
+        // Already part of the synced rows, so it cannot bring the deleted employee back.
+        assertFalse(readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 4, employee(2L, 1L), employee(2L, 1L, 40L))));
+        assertTrue(readModel.get(2L).isEmpty());
+    }
+
+    @Test
+    void completeLoad_ShouldRaiseTheVersionToTheLoadedOne() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.completeLoad(List.of(employee(1L, 0L)), 12);
+
+        assertEquals(12, readModel.getVersion());
+    }
+
+    @Test
+    void apply_ShouldIgnoreAChangeOlderThanTheOneApplied() {
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.completeLoad(List.of(employee(1L, 0L)), 0);
+
+        assertTrue(readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 5, employee(1L, 0L, 40L), employee(1L, 0L, 90L))));
+        assertFalse(readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.UPDATED, 4, employee(1L, 0L), employee(1L, 0L, 40L))));
+
+        assertEquals(90L, readModel.get(1L).orElseThrow().passwordStrengthValue());
+    }
+
+    @Test
+    void apply_ShouldRebuildTheIndexOnceChangesPileUp() {
+        List<EmployeeState> employees = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            employees.add(employee(id, 0L));
+        }
+        HierarchyReadModel readModel = new HierarchyReadModel();
+        readModel.completeLoad(employees, 0);
+
+        for (long id = 2001; id <= 3024; id++) {
+            readModel.apply(new EmployeeChangeEvent(EmployeeChangeType.CREATED, id, null, employee(id, 1L)));
+        }
+
+        // The last change filled the overlay, so the index is already current without a read-triggered rebuild.
+        assertEquals(readModel.getRevision(), readModel.getIndex().getRevision());
+        assertEquals(3024, readModel.getIndex().size());
+    }
+
+    private static EmployeeState employee(long id, long dependentId) {
+        return employee(id, dependentId, 50L);
+    }
+
+    private static EmployeeState employee(long id, long dependentId, long strength) {
+        return new EmployeeState(id, "Employee " + id, null, dependentId, strength);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameTrieTest {
+
+    @Test
+    void normalize_ShouldFoldAccentsCaseAndWhitespace() {
+        assertEquals("joao da silva", NameTrie.normalize("  João  DA\tSilva "));
+        assertEquals("francoise", NameTrie.normalize("FRANÇOISE"));
+        assertEquals("", NameTrie.normalize(null));
+    }
+
+    @Test
+    void search_ShouldMatchAnyWordPrefixIgnoringAccentsAndCase() {
+        NameTrie trie = NameTrie.build(List.of(
+                employee(1L, "João Silva"),
+                employee(2L, "Joana Souza"),
+                employee(3L, "Marcos Silvério")));
+
+        assertArrayEquals(new long[]{2L, 1L}, trie.search("jo", 10));
+        assertArrayEquals(new long[]{1L, 3L}, trie.search("SIL", 10));
+        assertArrayEquals(new long[]{3L}, trie.search("silve", 10));
+        assertArrayEquals(new long[]{1L}, trie.search("joão s", 10));
+        assertArrayEquals(new long[0], trie.search("pedro", 10));
+        assertArrayEquals(new long[0], trie.search("  ", 10));
+    }
+
+    @Test
+    void search_ShouldStopAtLimitAndReportEachEmployeeOnce() {
+        NameTrie trie = NameTrie.build(List.of(
+                employee(1L, "Ana Ana"),
+                employee(2L, "Ana Beatriz"),
+                employee(3L, "Ana Clara")));
+
+        assertArrayEquals(new long[]{1L, 2L, 3L}, trie.search("ana", 10));
+        assertArrayEquals(new long[]{1L, 2L}, trie.search("ana", 2));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousNameAndKeepDuplicates() {
+        NameTrie trie = new NameTrie();
+        trie.put(1L, "Carla Dias");
+        trie.put(2L, "Carla Dias");
+        trie.put(1L, "Bruna Dias");
+
+        assertArrayEquals(new long[]{2L}, trie.search("carla", 10));
+        assertArrayEquals(new long[]{1L}, trie.search("bru", 10));
+        assertArrayEquals(new long[]{1L, 2L}, trie.search("dias", 10));
+        assertEquals("Bruna Dias", trie.nameOf(1L));
+        assertEquals(2, trie.size());
+    }
+
+    @Test
+    void remove_ShouldPruneEmptyBranchesAndReuseTheirNodes() {
+        NameTrie trie = new NameTrie();
+        trie.put(1L, "Ana");
+        int nodesWithAna = trie.nodeCount();
+
+        trie.put(2L, "Anabela Rocha");
+        trie.remove(2L);
+
+        assertEquals(nodesWithAna, trie.nodeCount());
+        assertArrayEquals(new long[]{1L}, trie.search("ana", 10));
+        assertArrayEquals(new long[0], trie.search("rocha", 10));
+
+        trie.remove(1L);
+        trie.put(3L, "Bia");
+
+        assertEquals(4, trie.nodeCount());
+        assertArrayEquals(new long[]{3L}, trie.search("b", 10));
+        assertNull(trie.nameOf(1L));
+    }
+
+    @Test
+    void put_ShouldGrowPastInitialCapacity() {
+        NameTrie trie = new NameTrie(16);
+        for (long id = 1; id <= 200; id++) {
+            trie.put(id, "Employee " + id);
+        }
+
+        assertEquals(200, trie.size());
+        assertArrayEquals(new long[]{1L, 10L, 100L, 101L}, trie.search("employee 1", 4));
+        assertArrayEquals(new long[]{150L}, trie.search("150", 10));
+    }
+
+    private static EmployeeState employee(long id, String name) {
+        return new EmployeeState(id, name, null, 0, 50);
+    }
+
+}
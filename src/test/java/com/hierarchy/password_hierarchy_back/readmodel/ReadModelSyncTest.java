@@ -0,0 +1,97 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.services.HierarchySnapshotService;
+import com.hierarchy.password_hierarchy_back.services.NameAutocompleteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes rows the way another instance would, straight to the tables with a new row version, and checks that a sync
+ * brings them into the read model and the views served from it.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class ReadModelSyncTest {
+
+    private static final long ID = 9_000_101L;
+    private static final String NAME = "Elsewhere Written";
+
+    @Autowired
+    private ReadModelBootstrap readModelBootstrap;
+
+    @Autowired
+    private HierarchyReadModel readModel;
+
+    @Autowired
+    private NameAutocompleteService nameAutocompleteService;
+
+    @Autowired
+    private HierarchySnapshotService hierarchySnapshotService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM employees WHERE id = ?", ID);
+        jdbcTemplate.update("DELETE FROM employee_tombstones WHERE employee_id = ?", ID);
+    }
+
+    @Test
+    void syncWithDatabase_ShouldApplyWritesMadeThroughOtherInstances() {
+        nameAutocompleteService.preload();
+        hierarchySnapshotService.getSnapshot();
+
+        final long created = nextRowVersion();
+        jdbcTemplate.update("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id, " +
+                "row_version) VALUES (?, ?, NULL, 'hash', 70, NULL, ?)", ID, NAME, created);
+        readModelBootstrap.syncWithDatabase();
+
+        assertEquals(NAME, readModel.get(ID).orElseThrow().name());
+        assertTrue(isSuggested());
+        assertTrue(snapshotJson().contains(NAME));
+
+        final long deleted = nextRowVersion();
+        jdbcTemplate.update("INSERT INTO employee_tombstones (employee_id, row_version) VALUES (?, ?)", ID, deleted);
+        jdbcTemplate.update("DELETE FROM employees WHERE id = ?", ID);
+        readModelBootstrap.syncWithDatabase();
+
+        assertTrue(readModel.get(ID).isEmpty());
+        assertFalse(isSuggested());
+        assertFalse(snapshotJson().contains(NAME));
+    }
+
+    @Test
+    void syncWithDatabase_ShouldLeaveTheModelAlone_WhenNothingWasWrittenElsewhere() {
+        readModelBootstrap.syncWithDatabase();
+        final long loadCount = readModel.getLoadCount();
+        final long revision = readModel.getRevision();
+
+        readModelBootstrap.syncWithDatabase();
+
+        assertEquals(loadCount, readModel.getLoadCount());
+        assertEquals(revision, readModel.getRevision());
+    }
+
+    private long nextRowVersion() {
+        jdbcTemplate.update("UPDATE employee_change_sequence SET version = version + 1 WHERE id = 1");
+        return jdbcTemplate.queryForObject("SELECT version FROM employee_change_sequence WHERE id = 1", Long.class);
+    }
+
+    private boolean isSuggested() {
+        return nameAutocompleteService.suggest("Elsewhere", 50).stream().anyMatch(suggestion -> suggestion.getId() == ID);
+    }
+
+    private String snapshotJson() {
+        return new String(hierarchySnapshotService.getSnapshot().json(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.models.dtos.StrengthHistogramDTO;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class StrengthHistogramTest {
+
+    private EmployeeRepo employeeRepository;
+    private PlatformTransactionManager transactionManager;
+    private StrengthHistogram histogram;
+
+    @BeforeEach
+    void setUp() {
+        employeeRepository = mock(EmployeeRepo.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        histogram = new StrengthHistogram(employeeRepository, transactionManager);
+    }
+
+    @Test
+    void onEmployeeChange_ShouldMoveCountersBetweenBuckets() {
+        histogram.onEmployeeChange(change(EmployeeChangeType.CREATED, null, employee(1L, 10L)));
+        histogram.onEmployeeChange(change(EmployeeChangeType.CREATED, null, employee(2L, 100L)));
+        histogram.onEmployeeChange(change(EmployeeChangeType.UPDATED, employee(1L, 10L), employee(1L, 70L)));
+
+        StrengthHistogramDTO snapshot = histogram.snapshot();
+
+        assertEquals(2L, snapshot.getTotal());
+        assertEquals(0L, snapshot.getLabelCounts().get("Fraca"));
+        assertEquals(1L, snapshot.getLabelCounts().get("Boa"));
+        assertEquals(1L, snapshot.getLabelCounts().get("Forte"));
+        assertEquals(0L, snapshot.getDecileCounts().get(1));
+        assertEquals(1L, snapshot.getDecileCounts().get(7));
+        assertEquals(1L, snapshot.getDecileCounts().get(9));
+
+        histogram.onEmployeeChange(change(EmployeeChangeType.DELETED, employee(2L, 100L), null));
+
+        assertEquals(1L, histogram.snapshot().getTotal());
+        assertEquals(0L, histogram.snapshot().getLabelCounts().get("Forte"));
+    }
+
+    @Test
+    void reconcile_ShouldReplaceCountersWithTableCounts() {
+        histogram.onEmployeeChange(change(EmployeeChangeType.CREATED, null, employee(1L, 10L)));
+        when(employeeRepository.countByStrength()).thenReturn(List.of(new StrengthCount(50L, 3L), new StrengthCount(95L, 2L)));
+
+        histogram.reconcile();
+
+        StrengthHistogramDTO snapshot = histogram.snapshot();
+        assertEquals(5L, snapshot.getTotal());
+        assertEquals(0L, snapshot.getLabelCounts().get("Fraca"));
+        assertEquals(3L, snapshot.getLabelCounts().get("Mediana"));
+        assertEquals(2L, snapshot.getLabelCounts().get("Forte"));
+        assertEquals(3L, snapshot.getDecileCounts().get(5));
+    }
+
+    @Test
+    void reconcile_ShouldFoldInChangesNewerThanTheCount() {
+        when(employeeRepository.currentRowVersion()).thenReturn(5L);
+        when(employeeRepository.countByStrength()).thenAnswer(invocation -> {
+            // Committed before the count was taken, so already part of it.
+            histogram.onEmployeeChange(change(EmployeeChangeType.CREATED, 5L, null, employee(1L, 50L)));
+            // Committed after it.
+            histogram.onEmployeeChange(change(EmployeeChangeType.CREATED, 6L, null, employee(2L, 10L)));
+            histogram.onEmployeeChange(change(EmployeeChangeType.UPDATED, 7L, employee(3L, 50L), employee(3L, 95L)));
+            return List.of(new StrengthCount(50L, 2L));
+        });
+
+        histogram.reconcile();
+
+        StrengthHistogramDTO snapshot = histogram.snapshot();
+        assertEquals(3L, snapshot.getTotal());
+        assertEquals(1L, snapshot.getLabelCounts().get("Fraca"));
+        assertEquals(1L, snapshot.getLabelCounts().get("Mediana"));
+        assertEquals(1L, snapshot.getLabelCounts().get("Forte"));
+        verify(employeeRepository, never()).lockForWrite();
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+
+        // Once the count is installed, changes move the counters directly again.
+        histogram.onEmployeeChange(change(EmployeeChangeType.DELETED, 8L, employee(2L, 10L), null));
+        assertEquals(2L, histogram.snapshot().getTotal());
+    }
+
+    @Test
+    void run_ShouldSeedTheCountersFromTheTable() {
+        when(employeeRepository.countByStrength()).thenReturn(List.of(new StrengthCount(70L, 4L)));
+
+        histogram.run(null);
+
+        assertEquals(4L, histogram.snapshot().getLabelCounts().get("Boa"));
+    }
+
+    private static EmployeeChangeEvent change(EmployeeChangeType type, EmployeeState previous, EmployeeState current) {
+        return change(type, 1L, previous, current);
+    }
+
+    private static EmployeeChangeEvent change(EmployeeChangeType type, long version, EmployeeState previous,
+                                              EmployeeState current) {
+        return new EmployeeChangeEvent(type, version, previous, current);
+    }
+
+    private static EmployeeState employee(long id, long strength) {
+        return new EmployeeState(id, "Employee " + id, null, 0L, strength);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.hierarchy.password_hierarchy_back.readmodel;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubtreeAggregatesTest {
+
+    @Test
+    void compute_ShouldAggregateTransitiveDependents() {
+        List<EmployeeState> employees = List.of(
+                employee(1L, 0L, 90L),
+                employee(2L, 1L, 10L),
+                employee(3L, 1L, 70L),
+                employee(4L, 2L, 40L),
+                employee(5L, 4L, 5L));
+
+        SubtreeAggregates aggregates = SubtreeAggregates.compute(employees, 7L);
+
+        assertEquals(7L, aggregates.getRevision());
+        assertEquals(4, aggregates.dependentCount(1L));
+        assertEquals(5L, aggregates.minStrength(1L));
+        assertEquals((10 + 70 + 40 + 5) / 4.0, aggregates.averageStrength(1L));
+        assertEquals(2, aggregates.weakCount(1L));
+
+        assertEquals(2, aggregates.dependentCount(2L));
+        assertEquals(5L, aggregates.minStrength(2L));
+        assertEquals(1, aggregates.weakCount(2L));
+    }
+
+    @Test
+    void compute_ShouldLeaveLeavesEmpty() {
+        SubtreeAggregates aggregates = SubtreeAggregates.compute(List.of(employee(1L, 0L, 90L), employee(2L, 1L, 10L)), 0L);
+
+        assertEquals(0, aggregates.dependentCount(2L));
+        assertNull(aggregates.minStrength(2L));
+        assertNull(aggregates.averageStrength(2L));
+        assertEquals(0, aggregates.weakCount(2L));
+    }
+
+    @Test
+    void compute_ShouldIgnoreCycles() {
+        List<EmployeeState> employees = List.of(
+                employee(1L, 0L, 50L),
+                employee(2L, 3L, 50L),
+                employee(3L, 2L, 50L));
+
+        SubtreeAggregates aggregates = SubtreeAggregates.compute(employees, 0L);
+
+        assertEquals(0, aggregates.dependentCount(1L));
+        assertEquals(0, aggregates.dependentCount(2L));
+        assertEquals(0, aggregates.dependentCount(3L));
+    }
+
+    private static EmployeeState employee(long id, long dependentId, long strength) {
+        return new EmployeeState(id, "Employee " + id, null, dependentId, strength);
+    }
+
+}
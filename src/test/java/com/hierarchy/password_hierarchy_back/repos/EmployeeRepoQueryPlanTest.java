@@ -0,0 +1,449 @@
+package com.hierarchy.password_hierarchy_back.repos;
+
+import com.hierarchy.password_hierarchy_back.config.HibernateCacheConfig;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Runs every {@link EmployeeRepo} query against the migrated local schema, EXPLAINs each statement Hibernate
+ * issues (including the EAGER dependents fetches) and fails when the plan falls back to a full table scan.
+ * The second-level cache is emptied before each test, so every query reaches the database.
+ */
+@ActiveProfiles("test")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@Import(HibernateCacheConfig.class)
+public class EmployeeRepoQueryPlanTest {
+
+    private static final String FULL_SCAN = ".tableScan";
+
+    @Autowired
+    private EmployeeRepo employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+        jdbcTemplate.update("DELETE FROM employee_tombstones");
+        jdbcTemplate.update("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id) " +
+                "VALUES (1, 'John Doe', 'john.doe@example.com', 'hash', 70, NULL)");
+        jdbcTemplate.update("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id) " +
+                "VALUES (2, 'Marie Key', 'marie.key@example.com', 'hash', 50, 1)");
+        entityManager.clear();
+    }
+
+    @Test
+    void findById_ShouldUsePrimaryKeyAndDependentIndex() {
+        assertNoFullScan(capture(() -> employeeRepository.findById(1L)));
+    }
+
+    @Test
+    void findByDependentIdIsNull_ShouldUseDependentIndex() {
+        assertNoFullScan(capture(() -> employeeRepository.findByDependentIdIsNull()));
+    }
+
+    @Test
+    void findAll_ShouldOnlyScanForTheListingItself() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findAll());
+
+        // The dependents picker lists the whole table by design.
+        assertTrue(explain(statements.get(0)).contains(FULL_SCAN));
+        assertNoFullScan(statements.subList(1, statements.size()));
+    }
+
+    @Test
+    void findAllByIdNot_ShouldOnlyScanForTheListingItself() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findAllByIdNot(1L));
+
+        // Returns every row but one, so a scan is the cheapest plan for the listing itself.
+        assertTrue(explain(statements.get(0)).contains(FULL_SCAN));
+        assertNoFullScan(statements.subList(1, statements.size()));
+    }
+
+    @Test
+    void findByNameContaining_ShouldOnlyScanForTheSearchItself() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findByNameContaining("John"));
+
+        // A leading-wildcard LIKE cannot seek a B-tree index; the dependents fetches still must.
+        assertTrue(explain(statements.get(0)).contains(FULL_SCAN));
+        assertNoFullScan(statements.subList(1, statements.size()));
+    }
+
+    @Test
+    void findAllStates_ShouldReadTheTableInOneStatement() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findAllStates());
+
+        // Loads the whole read model, so a single scan without dependents fetches is the goal.
+        assertEquals(1, statements.size());
+        assertTrue(explain(statements.get(0)).contains(FULL_SCAN));
+    }
+
+    @Test
+    void findAllLinks_ShouldReadTheTableInOneStatement() {
+        final List<RecordedStatement> statements = capture(() -> {
+            final var links = employeeRepository.findAllLinks();
+            assertEquals(2, links.size());
+        });
+
+        // Both columns are in the dependent_id index, so the pass over every link never touches the table rows.
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    @Test
+    void countByStrength_ShouldCountInOneStatement() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.countByStrength());
+
+        // Reconciles the org-wide histogram, so one grouped pass over the table is expected.
+        assertEquals(1, statements.size());
+        assertTrue(explain(statements.get(0)).contains(FULL_SCAN));
+    }
+
+    @Test
+    void findStateById_ShouldUsePrimaryKeyWithoutDependentsFetch() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findStateById(2L));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    @Test
+    void findDependentIdById_ShouldUsePrimaryKey() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findDependentIdById(2L));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    @Test
+    void updateAttributes_ShouldUpdateByPrimaryKeyWithoutLoading() {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("name", "Marie Keys");
+        attributes.put("dependentId", null);
+
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.updateAttributes(2L, attributes));
+
+        assertEquals(1, statements.size());
+        assertTrue(statements.get(0).sql().toLowerCase().startsWith("update"));
+        assertNoFullScan(statements);
+        assertNull(jdbcTemplate.queryForObject("SELECT dependent_id FROM employees WHERE id = 2", Long.class));
+    }
+
+    @Test
+    void findStatesByIdIn_ShouldUsePrimaryKeyWithoutDependentsFetch() {
+        final List<RecordedStatement> statements = capture(() -> employeeRepository.findStatesByIdIn(List.of(1L, 2L)));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    @Test
+    void findSubtreeStates_ShouldWalkTheSubtreeInOneStatement() {
+        jdbcTemplate.update("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id) " +
+                "VALUES (3, 'Peter Elison', NULL, 'hash', 60, 2)");
+
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(List.of(1L, 2L, 3L), employeeRepository.findSubtreeStates(1L).stream()
+                        .map(EmployeeState::id).sorted().toList()));
+
+        // Each recursion step scans the rows the previous one produced; employees is only ever reached by index.
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements, "subtree");
+    }
+
+    @Test
+    void findManagerChainIds_ShouldWalkUpInOneStatement() {
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(List.of(1L, 2L), employeeRepository.findManagerChainIds(2L).stream().sorted().toList()));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements, "chain");
+    }
+
+    @Test
+    void findSubtreeStates_ShouldWalkChainsDeeperThanTheRecursionLimit() {
+        // Deeper than MySQL's default cte_max_recursion_depth of 1000, so one recursive query could not reach the end.
+        final long bottom = insertChain(1_200);
+
+        final List<RecordedStatement> statements = capture(() -> {
+            assertEquals(1_202, employeeRepository.findSubtreeStates(1L).size());
+            final List<Long> chain = employeeRepository.findManagerChainIds(bottom);
+            assertEquals(1_202, chain.size());
+            assertEquals(bottom, chain.get(0));
+            assertEquals(1L, chain.get(chain.size() - 1));
+        });
+
+        final int queriesPerWalk = 1_202 / EmployeeRepoCustomImpl.LEVELS_PER_QUERY + 1;
+        assertEquals(2 * queriesPerWalk, statements.size());
+    }
+
+    @Test
+    void findSubtreeStatesAndManagerChainIds_ShouldEndOnACycle() {
+        jdbcTemplate.update("UPDATE employees SET dependent_id = 2 WHERE id = 1");
+
+        assertEquals(List.of(1L, 2L), employeeRepository.findSubtreeStates(1L).stream()
+                .map(EmployeeState::id).sorted().toList());
+        assertEquals(List.of(2L, 1L), employeeRepository.findManagerChainIds(2L));
+    }
+
+    @Test
+    void updateDependentIds_ShouldUpdateByPrimaryKeyWithoutLoading() {
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(1, employeeRepository.updateDependentIds(List.of(2L), null, 5L)));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+        assertNull(jdbcTemplate.queryForObject("SELECT dependent_id FROM employees WHERE id = 2", Long.class));
+        assertEquals(5L, jdbcTemplate.queryForObject("SELECT row_version FROM employees WHERE id = 2", Long.class));
+    }
+
+    @Test
+    void deleteSubtreeRows_ShouldDeleteManagerAndDependentTogether() {
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(2, employeeRepository.deleteSubtreeRows(List.of(1L, 2L))));
+
+        // Clears the manager links, then deletes, both by primary key.
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(1).sql().toLowerCase().startsWith("delete"));
+        assertNoFullScan(statements);
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Integer.class));
+    }
+
+    @Test
+    void nextRowVersion_ShouldIncrementTheCounterByPrimaryKey() {
+        final long current = employeeRepository.currentRowVersion();
+
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(current + 1, employeeRepository.nextRowVersion()));
+
+        assertEquals(2, statements.size());
+        assertNoFullScan(statements);
+        assertEquals(current + 1, employeeRepository.currentRowVersion());
+    }
+
+    @Test
+    void findStatesChangedSince_ShouldUseRowVersionIndex() {
+        // Versions above the counter, so rows committed by other test classes never match.
+        final long base = employeeRepository.currentRowVersion();
+        jdbcTemplate.update("UPDATE employees SET row_version = ? WHERE id = 2", base + 3);
+
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(List.of(2L), employeeRepository.findStatesChangedSince(base + 2).stream()
+                        .map(EmployeeState::id).toList()));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    @Test
+    void insertTombstones_ShouldStampDeletedRowsAndReplaceOlderTombstones() {
+        final long base = employeeRepository.currentRowVersion();
+        jdbcTemplate.update("INSERT INTO employee_tombstones (employee_id, row_version) VALUES (2, ?)", base + 1);
+
+        final List<RecordedStatement> statements = capture(() ->
+                employeeRepository.insertTombstones(List.of(1L, 2L), base + 4));
+
+        assertEquals(2, statements.size());
+        assertNoFullScan(statements);
+        assertEquals(List.of(1L, 2L), employeeRepository.findTombstoneIdsSince(base + 3).stream().sorted().toList());
+    }
+
+    @Test
+    void findTombstoneIdsSince_ShouldUseRowVersionIndex() {
+        final long base = employeeRepository.currentRowVersion();
+        jdbcTemplate.update("INSERT INTO employee_tombstones (employee_id, row_version) VALUES (7, ?), (8, ?)",
+                base + 2, base + 5);
+
+        final List<RecordedStatement> statements = capture(() ->
+                assertEquals(List.of(8L), employeeRepository.findTombstoneIdsSince(base + 2)));
+
+        assertEquals(1, statements.size());
+        assertNoFullScan(statements);
+    }
+
+    /**
+     * Adds {@code length} employees below employee 2, each managing the next, and returns the id of the last one.
+     */
+    private long insertChain(int length) {
+        final List<Object[]> rows = new ArrayList<>(length);
+        for (long id = 3; id < 3 + length; id++) {
+            rows.add(new Object[]{id, "Chain " + id, id - 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees (id, name, email, password, password_strength_value, dependent_id) " +
+                "VALUES (?, ?, NULL, 'hash', 60, ?)", rows);
+        return 2L + length;
+    }
+
+    private List<RecordedStatement> capture(Runnable query) {
+        recorder.start();
+        try {
+            query.run();
+            entityManager.flush();
+        } finally {
+            recorder.stop();
+        }
+        entityManager.clear();
+
+        final List<RecordedStatement> statements = recorder.statements();
+        assertFalse(statements.isEmpty(), "No statement was issued");
+        return statements;
+    }
+
+    private void assertNoFullScan(List<RecordedStatement> statements) {
+        for (RecordedStatement statement : statements) {
+            final String plan = explain(statement);
+            assertFalse(plan.contains(FULL_SCAN), () -> "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    /**
+     * Like {@link #assertNoFullScan(List)}, but allows scans of the working table of the recursive CTE {@code cte}.
+     */
+    private void assertNoFullScan(List<RecordedStatement> statements, String cte) {
+        for (RecordedStatement statement : statements) {
+            final String plan = explain(statement);
+            assertFalse(plan.replace("." + cte + FULL_SCAN, "").contains(FULL_SCAN),
+                    () -> "Full table scan in plan:\n" + plan);
+        }
+    }
+
+    private String explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                for (Map.Entry<Integer, Object> parameter : statement.parameters().entrySet()) {
+                    explain.setObject(parameter.getKey(), parameter.getValue());
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    record RecordedStatement(String sql, Map<Integer, Object> parameters) {
+    }
+
+    /**
+     * Records the SQL and bound parameters of every prepared statement executed while started.
+     */
+    static class StatementRecorder {
+
+        private final List<RecordedStatement> statements = new ArrayList<>();
+        private volatile boolean recording;
+
+        void start() {
+            statements.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                final Object result = invoke(method, dataSource, args);
+                return result instanceof Connection connection ? wrap(connection) : result;
+            });
+        }
+
+        private Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                final Object result = invoke(method, connection, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return wrap(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement wrap(PreparedStatement statement, String sql) {
+            final Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                final String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                    parameters.put(index, args[1]);
+                } else if (name.startsWith("execute") && (args == null || args.length == 0) && recording) {
+                    statements.add(new RecordedStatement(sql, new TreeMap<>(parameters)));
+                }
+                return invoke(method, statement, args);
+            });
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+
+    @TestConfiguration
+    static class QueryPlanConfig {
+
+        @Bean
+        StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor(ObjectProvider<StatementRecorder> recorder) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? recorder.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+}
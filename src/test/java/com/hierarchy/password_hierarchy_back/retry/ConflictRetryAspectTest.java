@@ -0,0 +1,78 @@
+package com.hierarchy.password_hierarchy_back.retry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConflictRetryAspectTest {
+
+    static class Writer {
+
+        final AtomicInteger calls = new AtomicInteger();
+        int conflicts;
+
+        @RetryOnConflict
+        public String write() {
+            if (calls.incrementAndGet() <= conflicts) {
+                throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+            }
+            return "written";
+        }
+
+        @RetryOnConflict
+        public void fail() {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("Employee cannot be its own manager");
+        }
+
+    }
+
+    private static Writer proxy(Writer target, int maxAttempts) {
+        final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(maxAttempts, 1, 2));
+        return factory.getProxy();
+    }
+
+    @Test
+    void retry_ShouldRunAgainAfterAConflict() {
+        final Writer target = new Writer();
+        target.conflicts = 2;
+
+        assertEquals("written", proxy(target, 3).write());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void retry_ShouldGiveUpAfterMaxAttempts() {
+        final Writer target = new Writer();
+        target.conflicts = 10;
+
+        assertThrows(CannotAcquireLockException.class, () -> proxy(target, 3).write());
+        assertEquals(3, target.calls.get());
+    }
+
+    @Test
+    void retry_ShouldNotRetryOtherFailures() {
+        final Writer target = new Writer();
+
+        assertThrows(IllegalArgumentException.class, () -> proxy(target, 3).fail());
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void backoffMs_ShouldStayWithinTheCap() {
+        final ConflictRetryAspect aspect = new ConflictRetryAspect(5, 10, 40);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(aspect.backoffMs(1) <= 10);
+            assertTrue(aspect.backoffMs(3) <= 40);
+            assertTrue(aspect.backoffMs(30) <= 40);
+        }
+    }
+
+}
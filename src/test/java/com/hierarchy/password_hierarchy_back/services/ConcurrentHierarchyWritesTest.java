@@ -0,0 +1,204 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
+import com.hierarchy.password_hierarchy_back.models.dtos.EmployeeRequestDTO;
+import com.hierarchy.password_hierarchy_back.models.dtos.ReparentRequestDTO;
+import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers {@link EmployeeService} with concurrent moves and renames over a shared subtree, with 1, 2, 4 and 8 writers,
+ * and checks that the hierarchy never gains a cycle and that no write is lost (every committed change starts from the
+ * state the previous one left). Every write serializes on the change sequence row, so throughput is not expected to
+ * grow with writers; the check is only that added writers do not make it collapse.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class ConcurrentHierarchyWritesTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrentHierarchyWritesTest.class);
+    private static final String EMAIL = "stress@example.com";
+    private static final int EMPLOYEES = 40;
+    private static final int OPERATIONS_PER_ROUND = 240;
+    private static final int[] WRITERS = {1, 2, 4, 8};
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepo employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChangeRecorder recorder;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < EMPLOYEES; i++) {
+            jdbcTemplate.update("INSERT INTO employees (name, email, password, password_strength_value, dependent_id) " +
+                    "VALUES (?, ?, 'hash', 50, NULL)", "Stress " + i, EMAIL);
+        }
+        ids = jdbcTemplate.queryForList("SELECT id FROM employees WHERE email = ? ORDER BY id", Long.class, EMAIL);
+        // A chain deep enough for random moves to keep proposing cycles.
+        for (int i = 1; i < ids.size(); i++) {
+            jdbcTemplate.update("UPDATE employees SET dependent_id = ? WHERE id = ?", ids.get((i - 1) / 2), ids.get(i));
+        }
+        recorder.events.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The embedded database outlives this context, so the committed rows are removed for the other tests.
+        jdbcTemplate.update("UPDATE employees SET dependent_id = NULL WHERE email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM employees WHERE email = ?", EMAIL);
+    }
+
+    @Test
+    void concurrentWriters_ShouldKeepTheHierarchyAcyclicWithoutLosingUpdates() throws Exception {
+        final Map<Integer, Double> throughput = new LinkedHashMap<>();
+        for (int writers : WRITERS) {
+            throughput.put(writers, runRound(writers));
+        }
+
+        assertAcyclic();
+        assertNoLostUpdates();
+        log.info("Concurrent hierarchy writes, operations per second by writers: {}", throughput);
+        assertTrue(throughput.get(8) >= throughput.get(1) * 0.5,
+                () -> "Throughput collapsed under contention: " + throughput);
+    }
+
+    private double runRound(int writers) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(writers);
+        final List<Throwable> failures = new CopyOnWriteArrayList<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            final Random random = new Random(31L * writers + writer);
+            final int operations = OPERATIONS_PER_ROUND / writers;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operations; i++) {
+                    try {
+                        write(random);
+                    } catch (IllegalArgumentException rejectedCycle) {
+                        // Expected: the move would have put an employee under one of its own dependents.
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        final long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        final double seconds = (System.nanoTime() - startedAt) / 1e9;
+        executor.shutdown();
+
+        assertEquals(List.of(), failures, () -> writers + " writers failed: " + failures);
+        return OPERATIONS_PER_ROUND / seconds;
+    }
+
+    private void write(Random random) {
+        final long employee = pick(random);
+        switch (random.nextInt(3)) {
+            case 0 -> {
+                final EmployeeRequestDTO patch = new EmployeeRequestDTO();
+                patch.setDependentId(random.nextInt(5) == 0 ? 0L : pick(random));
+                employeeService.patchEmployee(employee, patch);
+            }
+            case 1 -> employeeService.reparentEmployees(
+                    new ReparentRequestDTO(List.of(employee, pick(random)), pick(random)));
+            default -> {
+                final EmployeeRequestDTO patch = new EmployeeRequestDTO();
+                patch.setName("Stress " + employee + " " + random.nextInt(1_000_000));
+                employeeService.patchEmployee(employee, patch);
+            }
+        }
+    }
+
+    private long pick(Random random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private void assertAcyclic() {
+        final Map<Long, Long> managers = new HashMap<>();
+        for (EmployeeState state : employeeRepository.findStatesByIdIn(ids)) {
+            managers.put(state.id(), state.dependentId());
+        }
+        for (Long id : ids) {
+            final Set<Long> chain = new HashSet<>();
+            for (long current = id; current != 0; current = managers.getOrDefault(current, 0L)) {
+                assertTrue(chain.add(current), () -> "Cycle through employee " + id + ": " + chain);
+            }
+        }
+    }
+
+    /**
+     * Replays the committed changes in version order: each one must start from the state the previous change of the
+     * same employee produced, and the last one must match the table.
+     */
+    private void assertNoLostUpdates() {
+        final Map<Long, EmployeeState> latest = new HashMap<>();
+        final List<EmployeeChangeEvent> events = new ArrayList<>(recorder.events);
+        events.sort(Comparator.comparingLong(EmployeeChangeEvent::version));
+        assertFalse(events.isEmpty());
+
+        for (EmployeeChangeEvent event : events) {
+            final EmployeeState before = latest.get(event.employeeId());
+            if (before != null) {
+                assertEquals(before, event.previous(), () -> "Change " + event.version() + " started from a stale row");
+            }
+            latest.put(event.employeeId(), event.current());
+        }
+        for (EmployeeState state : employeeRepository.findStatesByIdIn(latest.keySet())) {
+            assertEquals(latest.get(state.id()), state);
+        }
+    }
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        ChangeRecorder changeRecorder() {
+            return new ChangeRecorder();
+        }
+    }
+
+    static class ChangeRecorder {
+
+        private final Queue<EmployeeChangeEvent> events = new ConcurrentLinkedQueue<>();
+
+        // Like every consumer, records a change only once it has committed: a retried write publishes again.
+        @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+        public void onEmployeeChange(EmployeeChangeEvent event) {
+            events.add(event);
+        }
+    }
+
+}
@@ -1,8 +1,13 @@
 package com.hierarchy.password_hierarchy_back.services;
 
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeEvent;
+import com.hierarchy.password_hierarchy_back.events.EmployeeChangeType;
+import com.hierarchy.password_hierarchy_back.events.EmployeeState;
 import com.hierarchy.password_hierarchy_back.exceptions.EmployeeNotFoundException;
 import com.hierarchy.password_hierarchy_back.models.dtos.*;
 import com.hierarchy.password_hierarchy_back.models.entities.Employee;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyIndex;
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
 import com.hierarchy.password_hierarchy_back.repos.EmployeeRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,6 +18,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 
 import java.util.*;
 
@@ -20,19 +27,28 @@ import static com.hierarchy.password_hierarchy_back.models.dtos.DependentDTO.toD
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ActiveProfiles("test")
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(EmployeeService.class)
+@RecordApplicationEvents
 public class EmployeeServiceTest {
 
     @MockBean
     private EmployeeRepo employeeRepository;
 
+    @MockBean
+    private HierarchyReadModel readModel;
+
     @Autowired
     private EmployeeService employeeService;
 
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
     private Employee mockEmployee;
     private EmployeeRequestDTO mockEmployeeRequestDTO;
     private List<Employee> mockEmployeeList;
@@ -119,6 +135,59 @@ public class EmployeeServiceTest {
         verify(employeeRepository, times(1)).findAll();
     }
 
+    @Test
+    void getEmployeeById_ShouldReadTheIndex_WhenTheReadModelIsReady() {
+        useIndex();
+
+        EmployeeResponseDTO result = employeeService.getEmployeeById(2L);
+
+        assertEquals("Manager", result.getName());
+        assertEquals(1L, result.getDependentId());
+        assertEquals(List.of(3L), result.getDependents().stream().map(EmployeeResponseDTO::getId).toList());
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getEmployeeById(9L));
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void getDependents_ShouldReadTheIndex_WhenTheReadModelIsReady() {
+        useIndex();
+
+        List<DependentDTO> result = employeeService.getDependents(2L);
+
+        assertEquals(List.of(1L, 3L), result.stream().map(DependentDTO::getId).toList());
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void getManagers_ShouldReadTheIndex_WhenTheReadModelIsReady() {
+        useIndex();
+
+        List<DependentDTO> result = employeeService.getManagers(3L);
+
+        assertEquals(List.of("Manager", "Root"), result.stream().map(DependentDTO::getName).toList());
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @Test
+    void getManagers_ShouldFollowTheChainFromTheDatabase_WhenTheReadModelIsNotReady() {
+        when(employeeRepository.findManagerChainIds(3L)).thenReturn(List.of(1L, 3L, 2L));
+        when(employeeRepository.findStatesByIdIn(List.of(1L, 3L, 2L))).thenReturn(List.of(
+                new EmployeeState(1L, "Root", null, 0L, 50L),
+                new EmployeeState(2L, "Manager", null, 1L, 50L),
+                new EmployeeState(3L, "Developer", null, 2L, 50L)));
+
+        List<DependentDTO> result = employeeService.getManagers(3L);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(DependentDTO::getId).toList());
+    }
+
+    @Test
+    void getManagers_ShouldThrowException_WhenEmployeeNotFound() {
+        when(employeeRepository.findManagerChainIds(9L)).thenReturn(List.of());
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.getManagers(9L));
+    }
+
     @Test
     void getScore_ShouldReturnPasswordScore() {
         PasswordRequestDTO passwordRequest = new PasswordRequestDTO();
@@ -135,8 +204,8 @@ public class EmployeeServiceTest {
         // Arrange
         String searchParam = "John";
         List<Employee> mockEmployees = Arrays.asList(
-                new Employee(1L, "Marie Johnson", "john.doe@example.com", "password1242", 80L, null, new ArrayList<>()),
-                new Employee(2L, "John Smith", "john.smith@example.com", "12345password", 70L, null, new ArrayList<>())
+                new Employee(1L, "Marie Johnson", "john.doe@example.com", "password1242", 80L, null, 0L, new ArrayList<>()),
+                new Employee(2L, "John Smith", "john.smith@example.com", "12345password", 70L, null, 0L, new ArrayList<>())
         );
 
         when(employeeRepository.findByNameContaining(searchParam)).thenReturn(mockEmployees);
@@ -173,13 +242,86 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    @Test
+    void patchEmployee_ShouldUpdateOnlyChangedFields_WithoutHashing() {
+        when(employeeRepository.findStateById(1L)).thenReturn(Optional.of(createMockEmployeeState()));
+        when(employeeRepository.findDependentIdById(3L)).thenReturn(Optional.of(0L));
+        when(employeeRepository.nextRowVersion()).thenReturn(7L);
+
+        EmployeeRequestDTO patch = new EmployeeRequestDTO();
+        patch.setName("John Doe");
+        patch.setDependentId(3L);
+
+        employeeService.patchEmployee(1L, patch);
+
+        Map<String, Object> expected = new HashMap<>();
+        expected.put("dependentId", 3L);
+        expected.put("rowVersion", 7L);
+        verify(employeeRepository, times(1)).updateAttributes(1L, expected);
+        verify(employeeRepository, never()).findById(any());
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    @Test
+    void patchEmployee_ShouldHashPassword_WhenPasswordIsSupplied() {
+        when(employeeRepository.findStateById(1L)).thenReturn(Optional.of(createMockEmployeeState()));
+
+        EmployeeRequestDTO patch = new EmployeeRequestDTO();
+        patch.setPassword("strongPassword123!");
+
+        employeeService.patchEmployee(1L, patch);
+
+        verify(employeeRepository, times(1)).updateAttributes(eq(1L), argThat(changes ->
+                changes.keySet().equals(Set.of("password", "passwordStrengthValue", "rowVersion"))
+                        && !"strongPassword123!".equals(changes.get("password"))));
+    }
+
+    @Test
+    void patchEmployee_ShouldSkipUpdate_WhenNothingChanges() {
+        when(employeeRepository.findStateById(1L)).thenReturn(Optional.of(createMockEmployeeState()));
+
+        employeeService.patchEmployee(1L, new EmployeeRequestDTO());
+
+        verify(employeeRepository, never()).updateAttributes(any(), any());
+        verify(employeeRepository, never()).nextRowVersion();
+    }
+
+    @Test
+    void patchEmployee_ShouldThrowException_WhenNewManagerIsATransitiveDependent() {
+        when(employeeRepository.findStateById(1L)).thenReturn(Optional.of(createMockEmployeeState()));
+        when(employeeRepository.findDependentIdById(5L)).thenReturn(Optional.of(4L));
+        when(employeeRepository.findDependentIdById(4L)).thenReturn(Optional.of(1L));
+
+        EmployeeRequestDTO patch = new EmployeeRequestDTO();
+        patch.setDependentId(5L);
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> employeeService.patchEmployee(1L, patch));
+
+        assertEquals("The employee ID is a dependent of the current employee and cannot be assigned.", exception.getMessage());
+        verify(employeeRepository, never()).updateAttributes(any(), any());
+    }
+
+    @Test
+    void patchEmployee_ShouldThrowException_WhenNewManagerIsNotFound() {
+        when(employeeRepository.findStateById(1L)).thenReturn(Optional.of(createMockEmployeeState()));
+        when(employeeRepository.findDependentIdById(9L)).thenReturn(Optional.empty());
+
+        EmployeeRequestDTO patch = new EmployeeRequestDTO();
+        patch.setDependentId(9L);
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.patchEmployee(1L, patch));
+    }
+
     @Test
     void deleteEmployee_ShouldDeleteEmployee_WhenNoDependents() {
         mockEmployee.setDependents(Collections.emptyList());
         when(employeeRepository.findById(1L)).thenReturn(Optional.of(mockEmployee));
 
+        when(employeeRepository.nextRowVersion()).thenReturn(7L);
+
         employeeService.deleteEmployee(1L);
 
+        verify(employeeRepository, times(1)).insertTombstones(List.of(1L), 7L);
         verify(employeeRepository, times(1)).deleteById(1L);
     }
 
@@ -196,6 +338,120 @@ public class EmployeeServiceTest {
         assertTrue(actualMessage.equals(expectedMessage));
     }
 
+    @Test
+    void reparentEmployees_ShouldMoveOnlyEmployeesNotAlreadyUnderTheManager() {
+        when(employeeRepository.findStatesByIdIn(Set.of(2L, 3L))).thenReturn(List.of(
+                new EmployeeState(2L, "Marie Key", null, 1L, 50L),
+                new EmployeeState(3L, "Peter Elison", null, 4L, 60L)));
+        when(employeeRepository.findManagerChainIds(4L)).thenReturn(List.of(4L, 1L));
+        when(employeeRepository.nextRowVersion()).thenReturn(7L);
+        when(employeeRepository.updateDependentIds(List.of(2L), 4L, 7L)).thenReturn(1);
+
+        BulkChangeResponseDTO result = employeeService.reparentEmployees(new ReparentRequestDTO(List.of(2L, 3L, 2L), 4L));
+
+        assertEquals(1, result.getRowsChanged());
+        assertEquals(List.of(2L), result.getEmployeeIds());
+        verify(employeeRepository, never()).save(any(Employee.class));
+
+        EmployeeChangeEvent change = applicationEvents.stream(EmployeeChangeEvent.class).findFirst().orElseThrow();
+        assertEquals(7L, change.version());
+        assertEquals(1L, change.previous().dependentId());
+        assertEquals(4L, change.current().dependentId());
+    }
+
+    @Test
+    void reparentEmployees_ShouldThrowException_WhenNewManagerReportsToAMovedEmployee() {
+        when(employeeRepository.findStatesByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                createMockEmployeeState(), new EmployeeState(2L, "Marie Key", null, 1L, 50L)));
+        when(employeeRepository.findManagerChainIds(5L)).thenReturn(List.of(5L, 2L, 1L));
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> employeeService.reparentEmployees(new ReparentRequestDTO(List.of(1L, 2L), 5L)));
+
+        assertEquals("The employee ID is a dependent of the current employee and cannot be assigned.", exception.getMessage());
+        verify(employeeRepository, never()).updateDependentIds(any(), any(), anyLong());
+    }
+
+    @Test
+    void reparentEmployees_ShouldThrowException_WhenAnEmployeeIsNotFound() {
+        when(employeeRepository.findStatesByIdIn(Set.of(1L, 9L))).thenReturn(List.of(createMockEmployeeState()));
+
+        Exception exception = assertThrows(EmployeeNotFoundException.class,
+                () -> employeeService.reparentEmployees(new ReparentRequestDTO(List.of(1L, 9L), 0L)));
+
+        assertEquals("Employee not found with id 9", exception.getMessage());
+    }
+
+    @Test
+    void reparentEmployees_ShouldThrowException_WhenNoEmployeeIsGiven() {
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.reparentEmployees(new ReparentRequestDTO(List.of(), 1L)));
+    }
+
+    @Test
+    void deleteSubtree_ShouldDeleteEveryRowAndPublishDependentsFirst() {
+        when(employeeRepository.findSubtreeStates(1L)).thenReturn(List.of(
+                createMockEmployeeState(),
+                new EmployeeState(3L, "Peter Elison", null, 2L, 60L),
+                new EmployeeState(2L, "Marie Key", null, 1L, 50L)));
+        when(employeeRepository.deleteSubtreeRows(List.of(1L, 3L, 2L))).thenReturn(3);
+        when(employeeRepository.nextRowVersion()).thenReturn(7L);
+
+        BulkChangeResponseDTO result = employeeService.deleteSubtree(1L);
+
+        assertEquals(3, result.getRowsChanged());
+        verify(employeeRepository, times(1)).insertTombstones(List.of(1L, 3L, 2L), 7L);
+        List<Long> deleted = applicationEvents.stream(EmployeeChangeEvent.class)
+                .filter(event -> event.type() == EmployeeChangeType.DELETED)
+                .map(EmployeeChangeEvent::employeeId)
+                .toList();
+        assertEquals(List.of(3L, 2L, 1L), deleted);
+    }
+
+    @Test
+    void deleteSubtree_ShouldThrowException_WhenEmployeeNotFound() {
+        when(employeeRepository.findSubtreeStates(9L)).thenReturn(List.of());
+
+        assertThrows(EmployeeNotFoundException.class, () -> employeeService.deleteSubtree(9L));
+        verify(employeeRepository, never()).deleteSubtreeRows(any());
+    }
+
+    @Test
+    void getChangesSince_ShouldReturnChangedRowsAndTombstonesAfterTheVersion() {
+        when(employeeRepository.currentRowVersion()).thenReturn(12L);
+        when(employeeRepository.findStatesChangedSince(10L)).thenReturn(List.of(createMockEmployeeState()));
+        when(employeeRepository.findTombstoneIdsSince(10L)).thenReturn(List.of(4L));
+
+        EmployeeChangesDTO result = employeeService.getChangesSince(10L);
+
+        assertEquals(12L, result.getVersion());
+        assertEquals(1, result.getChanged().size());
+        assertEquals("John Doe", result.getChanged().get(0).getName());
+        assertEquals(0L, result.getChanged().get(0).getDependentId());
+        assertEquals(List.of(4L), result.getDeletedIds());
+        verify(employeeRepository, never()).findAll();
+    }
+
+    @Test
+    void getChangesSince_WithoutVersion_ShouldReturnEveryRowAndNoTombstones() {
+        when(employeeRepository.currentRowVersion()).thenReturn(12L);
+        when(employeeRepository.findStatesChangedSince(-1L)).thenReturn(List.of(createMockEmployeeState()));
+
+        EmployeeChangesDTO result = employeeService.getChangesSince(null);
+
+        assertEquals(1, result.getChanged().size());
+        assertEquals(List.of(), result.getDeletedIds());
+        verify(employeeRepository, never()).findTombstoneIdsSince(anyLong());
+    }
+
+    private void useIndex() {
+        when(readModel.isReady()).thenReturn(true);
+        when(readModel.getIndex()).thenReturn(HierarchyIndex.build(List.of(
+                new EmployeeState(1L, "Root", "root@example.com", 0L, 90L),
+                new EmployeeState(2L, "Manager", "manager@example.com", 1L, 70L),
+                new EmployeeState(3L, "Developer", "developer@example.com", 2L, 40L)), 0L));
+    }
+
     private Employee createMockEmployee() {
         Employee employee = new Employee();
         employee.setId(1L);
@@ -224,6 +480,10 @@ public class EmployeeServiceTest {
         return employee;
     }
 
+    private EmployeeState createMockEmployeeState() {
+        return new EmployeeState(1L, "John Doe", "john.doe@example.com", 0L, 70L);
+    }
+
     private EmployeeRequestDTO createMockEmployeeRequestDTO() {
         EmployeeRequestDTO dto = new EmployeeRequestDTO();
         dto.setName("John Doe");
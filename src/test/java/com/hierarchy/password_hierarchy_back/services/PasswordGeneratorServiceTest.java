@@ -0,0 +1,72 @@
+package com.hierarchy.password_hierarchy_back.services;
+
+import com.hierarchy.password_hierarchy_back.models.dtos.GeneratedPasswordDTO;
+import com.hierarchy.password_hierarchy_back.models.dtos.PasswordGenerateRequestDTO;
+import com.hierarchy.password_hierarchy_back.utils.PasswordUtils;
+import com.hierarchy.password_hierarchy_back.utils.StrengthLabel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordGeneratorServiceTest {
+
+    private final PasswordGeneratorService service = new PasswordGeneratorService(16, 1000);
+
+    @Test
+    void generate_ShouldReachTheRequestedLabel() {
+        final List<GeneratedPasswordDTO> passwords = service.generate(PasswordGenerateRequestDTO.builder()
+                .count(500)
+                .label(StrengthLabel.STRONG)
+                .build());
+
+        assertEquals(500, passwords.size());
+        for (GeneratedPasswordDTO generated : passwords) {
+            assertEquals(16, generated.getPassword().length());
+            assertEquals(PasswordUtils.calculatePasswordStrength(generated.getPassword()),
+                    generated.getPasswordStrengthValue());
+            assertEquals(StrengthLabel.STRONG.getLabel(), generated.getPasswordStrengthLabel());
+        }
+    }
+
+    @Test
+    void generate_ShouldHonourAShortLengthThatReachesTheScore() {
+        final List<GeneratedPasswordDTO> passwords = service.generate(PasswordGenerateRequestDTO.builder()
+                .count(100)
+                .length(8)
+                .minStrength(80L)
+                .build());
+
+        for (GeneratedPasswordDTO generated : passwords) {
+            assertEquals(8, generated.getPassword().length());
+            assertTrue(generated.getPasswordStrengthValue() >= 80);
+        }
+    }
+
+    @Test
+    void generate_ShouldDefaultToOnePassword() {
+        assertEquals(1, service.generate(new PasswordGenerateRequestDTO()).size());
+    }
+
+    @Test
+    void generate_ShouldRejectALengthTooShortForTheScore() {
+        final PasswordGenerateRequestDTO request = PasswordGenerateRequestDTO.builder()
+                .length(4)
+                .label(StrengthLabel.GOOD)
+                .build();
+
+        assertThrows(IllegalArgumentException.class, () -> service.generate(request));
+    }
+
+    @Test
+    void generate_ShouldRejectInvalidCountAndStrength() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generate(PasswordGenerateRequestDTO.builder().count(1001).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generate(PasswordGenerateRequestDTO.builder().count(0).build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generate(PasswordGenerateRequestDTO.builder().minStrength(101L).build()));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerTimingFilterTest {
+
+    @Test
+    void doFilter_ShouldWriteHeaderBeforeTheBody() throws Exception {
+        final SlowRequestLog slowRequestLog = new SlowRequestLog(10);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(slowRequestLog, 60_000).doFilter(new MockHttpServletRequest("GET", "/api/employee/1"), response,
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                        final long start = RequestTiming.start();
+                        RequestTiming.countQuery();
+                        LockSupport.parkNanos(1_000_000);
+                        RequestTiming.record(RequestTiming.Phase.DB, start);
+                        response.getOutputStream().write('x');
+                        response.flushBuffer();
+                        RequestTiming.record(RequestTiming.Phase.SERIALIZATION, RequestTiming.start());
+                    }
+                }));
+
+        final String header = response.getHeader(ServerTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(header.matches("db;desc=\"1 query\";dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+        assertTrue(slowRequestLog.recent().isEmpty());
+    }
+
+    @Test
+    void doFilter_ShouldWriteHeaderForResponsesWithoutBody() throws Exception {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new ServerTimingFilter(new SlowRequestLog(10), 60_000)
+                .doFilter(new MockHttpServletRequest("DELETE", "/api/employee/1"), response, new MockFilterChain());
+
+        assertTrue(response.getHeader(ServerTimingFilter.SERVER_TIMING).startsWith("total;dur="));
+    }
+
+    @Test
+    void doFilter_ShouldLogSlowRequests() throws Exception {
+        final SlowRequestLog slowRequestLog = new SlowRequestLog(10);
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(201);
+
+        new ServerTimingFilter(slowRequestLog, 0)
+                .doFilter(new MockHttpServletRequest("POST", "/api/employee"), response, new MockFilterChain());
+
+        final List<SlowRequest> slowRequests = slowRequestLog.recent();
+        assertEquals(1, slowRequests.size());
+        assertEquals("POST", slowRequests.get(0).method());
+        assertEquals("/api/employee", slowRequests.get(0).path());
+        assertEquals(201, slowRequests.get(0).status());
+    }
+
+    @Test
+    void recordOutsideRequest_ShouldBeIgnored() {
+        assertEquals(0, RequestTiming.start());
+        RequestTiming.record(RequestTiming.Phase.HASH, 0);
+        RequestTiming.countQuery();
+    }
+
+    @Test
+    void slowRequestLog_ShouldKeepTheNewestEntries() {
+        final SlowRequestLog slowRequestLog = new SlowRequestLog(2);
+        for (int i = 1; i <= 3; i++) {
+            slowRequestLog.add(new SlowRequest(null, "GET", "/" + i, 200, i, ""));
+        }
+
+        final List<SlowRequest> recent = slowRequestLog.recent();
+        assertEquals(List.of("/3", "/2"), recent.stream().map(SlowRequest::path).toList());
+    }
+
+}
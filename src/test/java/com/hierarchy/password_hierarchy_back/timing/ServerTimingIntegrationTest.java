@@ -0,0 +1,48 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the phases the real instrumentation reports, through the full filter chain.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ServerTimingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void search_ShouldReportDatabaseMappingAndSerialization() throws Exception {
+        // The dependents and tree reads come from the read model; the name search still queries the table.
+        mockMvc.perform(get("/api/employee/name").param("name", "Employee"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, containsString("db;desc=")))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, containsString("map;dur=")))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, containsString("ser;dur=")))
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, containsString("total;dur=")));
+    }
+
+    @Test
+    void score_ShouldReportScoring() throws Exception {
+        mockMvc.perform(post("/api/employee/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"item\": \"Str0ng#Passw0rd\" }"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTimingFilter.SERVER_TIMING, containsString("score;dur=")));
+    }
+
+}
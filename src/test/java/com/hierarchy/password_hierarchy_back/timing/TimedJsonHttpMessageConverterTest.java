@@ -0,0 +1,75 @@
+package com.hierarchy.password_hierarchy_back.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimedJsonHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final TimedJsonHttpMessageConverter converter = new TimedJsonHttpMessageConverter(objectMapper);
+
+    @Test
+    void write_ShouldStreamLargeResponsesInsteadOfBufferingThem() throws Exception {
+        final List<String> names = IntStream.range(0, 50_000).mapToObj(i -> "Employee " + i).toList();
+        final RecordingMessage message = new RecordingMessage();
+
+        converter.write(names, MediaType.APPLICATION_JSON, message);
+
+        assertEquals(objectMapper.writeValueAsString(names), message.body.toString());
+        assertTrue(message.writes.size() > 1);
+        assertTrue(Collections.max(message.writes) < message.body.size());
+        assertEquals(-1, message.getHeaders().getContentLength());
+    }
+
+    @Test
+    void write_ShouldOpenTheBodyOnlyOnceJacksonWrites() throws Exception {
+        final RecordingMessage message = new RecordingMessage();
+
+        converter.write(List.of("Employee"), MediaType.APPLICATION_JSON, message);
+
+        assertEquals("[\"Employee\"]", message.body.toString());
+        assertEquals(1, message.writes.size());
+    }
+
+    private static class RecordingMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final List<Integer> writes = new ArrayList<>();
+
+        @Override
+        public OutputStream getBody() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    writes.add(1);
+                    body.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    writes.add(len);
+                    body.write(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+}
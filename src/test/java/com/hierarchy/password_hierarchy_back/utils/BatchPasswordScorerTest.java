@@ -0,0 +1,69 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.hierarchy.password_hierarchy_back.utils.PasswordUtils.calculatePasswordStrength;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchPasswordScorerTest {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!@#$%&*()-_ ~";
+    private static final String UNICODE = "çÉßΩω٣Ⓐⓐªº中€";
+
+    @Test
+    void score_ShouldMatchScalarScorer() {
+        List<String> passwords = new ArrayList<>(List.of("", "a", "Ab", "abc", "ABC", "123", "!\"#", "aaaa", "AaAa",
+                "Password123!", "xyz789XYZ", "11111111", "abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJ",
+                "ⒶⒷⒸ", "ⓐⓑⓒ", "Senha٣٤٥", "çaço"));
+        Random random = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            passwords.add(randomPassword(random, i % 10 == 0));
+        }
+        PasswordBatch batch = PasswordBatch.of(passwords);
+
+        long[] scalar = BatchPasswordScorer.scalar().score(batch);
+        long[] preferred = new BatchPasswordScorer().score(batch);
+
+        for (int i = 0; i < passwords.size(); i++) {
+            long expected = calculatePasswordStrength(passwords.get(i));
+            assertEquals(expected, scalar[i], "scalar kernel on " + passwords.get(i));
+            assertEquals(expected, preferred[i], "preferred kernel on " + passwords.get(i));
+        }
+    }
+
+    @Test
+    void score_ShouldUseVectorKernel_WhenModuleIsPresent() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+        assertEquals(vectorModule, new BatchPasswordScorer().getKernelName().startsWith("vector"));
+        assertEquals("scalar", BatchPasswordScorer.scalar().getKernelName());
+    }
+
+    @Test
+    void score_ShouldRejectRangeOutsideBatch() {
+        PasswordBatch batch = PasswordBatch.of(List.of("a", "b"));
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchPasswordScorer().score(batch, 1, 3, new long[3]));
+    }
+
+    private static String randomPassword(Random random, boolean withUnicode) {
+        char[] password = new char[random.nextInt(40)];
+        for (int i = 0; i < password.length; i++) {
+            password[i] = withUnicode && random.nextInt(4) == 0
+                    ? UNICODE.charAt(random.nextInt(UNICODE.length()))
+                    : ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        // Plant runs and pairs, which random input rarely produces.
+        if (password.length > 3 && random.nextBoolean()) {
+            int at = random.nextInt(password.length - 2);
+            password[at + 1] = (char) (password[at] + 1);
+            password[at + 2] = (char) (password[at] + 2);
+        }
+        return new String(password);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.hierarchy.password_hierarchy_back.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordGeneratorTest {
+
+    @Test
+    void generate_ShouldReachTheGuaranteedStrengthAtEveryLength() {
+        for (int length = PasswordGenerator.MIN_LENGTH; length <= PasswordGenerator.MAX_LENGTH; length++) {
+            final long guaranteed = PasswordGenerator.guaranteedStrength(length);
+            for (int i = 0; i < 200; i++) {
+                final String password = PasswordGenerator.generate(length);
+
+                assertEquals(length, password.length());
+                assertTrue(PasswordUtils.calculatePasswordStrength(password) >= guaranteed,
+                        () -> password + " scored below " + guaranteed);
+            }
+        }
+    }
+
+    @Test
+    void generate_ShouldMixAllClassesWithoutRepeats() {
+        for (int i = 0; i < 1000; i++) {
+            final String password = PasswordGenerator.generate(PasswordGenerator.MAX_LENGTH);
+
+            assertTrue(password.chars().anyMatch(Character::isUpperCase), password);
+            assertTrue(password.chars().anyMatch(Character::isLowerCase), password);
+            assertTrue(password.chars().anyMatch(Character::isDigit), password);
+            assertTrue(password.chars().anyMatch(c -> !Character.isLetterOrDigit(c)), password);
+            assertEquals(password.length(), password.toLowerCase().chars().distinct().count(), password);
+        }
+    }
+
+    @Test
+    void minimumLength_ShouldReachEveryLabel() {
+        for (StrengthLabel label : StrengthLabel.values()) {
+            final int length = PasswordGenerator.minimumLength(label.getMinStrength());
+
+            assertTrue(PasswordGenerator.guaranteedStrength(length) >= label.getMinStrength());
+            assertEquals(label, StrengthLabel.fromStrength(label.getMinStrength()));
+            assertTrue(StrengthLabel.fromStrength(
+                    PasswordUtils.calculatePasswordStrength(PasswordGenerator.generate(length))).compareTo(label) >= 0);
+        }
+        assertEquals(100, PasswordGenerator.guaranteedStrength(PasswordGenerator.minimumLength(100)));
+    }
+
+    @Test
+    void minimumLength_ShouldRejectUnreachableStrength() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordGenerator.minimumLength(101));
+    }
+
+    @Test
+    void generate_ShouldRejectLengthOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordGenerator.generate(PasswordGenerator.MIN_LENGTH - 1));
+        assertThrows(IllegalArgumentException.class, () -> PasswordGenerator.generate(PasswordGenerator.MAX_LENGTH + 1));
+    }
+
+    @Test
+    void generate_ShouldNotRepeatAcrossThreads() throws Exception {
+        final Set<String> passwords = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = IntStream.range(0, 4)
+                    .<Future<?>>mapToObj(thread -> executor.submit(() -> {
+                        for (int i = 0; i < 2500; i++) {
+                            passwords.add(PasswordGenerator.generate(16));
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(10_000, new HashSet<>(passwords).size());
+    }
+
+}
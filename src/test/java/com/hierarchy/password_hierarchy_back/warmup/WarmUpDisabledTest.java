@@ -0,0 +1,29 @@
+package com.hierarchy.password_hierarchy_back.warmup;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest(properties = "hierarchy.warmup.enabled=false")
+public class WarmUpDisabledTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
+    @Test
+    void readiness_ShouldBeUp_WhenWarmUpIsDisabled() {
+        assertTrue(context.getBeansOfType(WarmUpRunner.class).isEmpty());
+        assertEquals(Status.UP, healthEndpoint.healthForPath("readiness").getStatus());
+    }
+
+}
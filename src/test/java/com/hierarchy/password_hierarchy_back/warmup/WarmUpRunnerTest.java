@@ -0,0 +1,51 @@
+package com.hierarchy.password_hierarchy_back.warmup;
+
+import com.hierarchy.password_hierarchy_back.readmodel.HierarchyReadModel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class WarmUpRunnerTest {
+
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+
+    @Autowired
+    private WarmUpHealthIndicator warmUpHealthIndicator;
+
+    @Autowired
+    private HierarchyReadModel readModel;
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void warmUp_ShouldFinishBeforeReadiness() {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertTrue(warmUpRunner.getLastDurationMillis() >= 0);
+        assertTrue(readModel.isReady());
+
+        assertEquals(Status.UP, warmUpHealthIndicator.health().getStatus());
+        assertEquals(warmUpRunner.getLastDurationMillis(), warmUpHealthIndicator.health().getDetails().get("durationMs"));
+    }
+
+    @Test
+    void warmUp_ShouldRecordEveryStep() {
+        for (String step : new String[]{"connections", "scoring", "mapping", "hashing", "hierarchy"}) {
+            assertEquals(1, meterRegistry.get("hierarchy.warmup").tag("step", step).timer().count(), step);
+        }
+    }
+
+}